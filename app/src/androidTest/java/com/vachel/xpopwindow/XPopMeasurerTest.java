@@ -0,0 +1,68 @@
+package com.vachel.xpopwindow;
+
+import android.view.View;
+import android.widget.PopupWindow;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.vachel.xpopwindow.sample.MainActivity;
+import com.vachel.xpopwindow.sample.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * 校验XPopMeasurer算出的尺寸和真实measure的结果一致
+ */
+@RunWith(AndroidJUnit4.class)
+public class XPopMeasurerTest {
+    private static final String[] LABELS = new String[]{"复制", "删除", "粘贴", "引用", "收藏", "保存", "转发", "多选", "翻译", "提醒", "搜一搜", "撤回"};
+    private static final int[] ICONS = new int[]{R.mipmap.pop_icon_copy, R.mipmap.pop_icon_delete};
+
+    @Test
+    public void computedSizeMatchesMeasuredSize() {
+        ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class);
+        try {
+            scenario.onActivity(new ActivityScenario.ActivityAction<MainActivity>() {
+                @Override
+                public void perform(MainActivity activity) {
+                    View anchor = activity.findViewById(R.id.recycle_view);
+                    for (int count = 1; count <= LABELS.length; count++) {
+                        String[] labels = new String[count];
+                        int[] icons = new int[count];
+                        for (int i = 0; i < count; i++) {
+                            labels[i] = LABELS[i];
+                            icons[i] = ICONS[i % ICONS.length];
+                        }
+                        assertMeasured(activity, anchor, labels, null, false, false);
+                        assertMeasured(activity, anchor, labels, icons, true, false);
+                        assertMeasured(activity, anchor, labels, icons, true, true);
+                    }
+                }
+            });
+        } finally {
+            scenario.close();
+        }
+    }
+
+    private static void assertMeasured(MainActivity activity, View anchor, String[] labels, int[] icons,
+                                       boolean dividerVertical, boolean dividerHorizontal) {
+        XPopWindow popWindow = XPopWindow.build(activity, anchor)
+                .setItems(labels)
+                .setIcons(icons)
+                .setDividerVerticalEnable(dividerVertical)
+                .setDividerHorizontalEnable(dividerHorizontal);
+        popWindow.show();
+        PopupWindow popupWindow = popWindow.getPopupWindow();
+        View content = popupWindow.getContentView();
+        content.measure(View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        String message = labels.length + " items, icons=" + (icons != null);
+        assertEquals(message, content.getMeasuredWidth(), popupWindow.getWidth());
+        assertEquals(message, content.getMeasuredHeight(), popupWindow.getHeight());
+        popWindow.dismiss();
+    }
+}
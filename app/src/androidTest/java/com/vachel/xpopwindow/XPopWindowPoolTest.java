@@ -0,0 +1,76 @@
+package com.vachel.xpopwindow;
+
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.vachel.xpopwindow.sample.MainActivity;
+import com.vachel.xpopwindow.sample.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * 对比使用复用池前后show的分配次数和耗时
+ */
+@RunWith(AndroidJUnit4.class)
+public class XPopWindowPoolTest {
+    private static final String TAG = "XPopWindowPoolTest";
+    private static final int ROUNDS = 50;
+    private static final String[] ITEMS = new String[]{"复制", "删除", "粘贴", "引用", "收藏", "保存", "转发"};
+
+    @Test
+    public void pooledShowAllocatesLessAndReusesEntry() {
+        ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class);
+        try {
+            scenario.onActivity(new ActivityScenario.ActivityAction<MainActivity>() {
+                @Override
+                public void perform(MainActivity activity) {
+                    View anchor = activity.findViewById(R.id.recycle_view);
+                    // 预热一次，排除类加载的影响
+                    showAndDismiss(activity, anchor, null);
+
+                    long[] plain = measure(activity, anchor, null);
+                    XPopWindowPool pool = new XPopWindowPool(activity);
+                    long[] pooled = measure(activity, anchor, pool);
+
+                    Log.i(TAG, "no pool: " + plain[0] / ROUNDS + " allocs/show, " + plain[1] / ROUNDS + " ns/show");
+                    Log.i(TAG, "pool:    " + pooled[0] / ROUNDS + " allocs/show, " + pooled[1] / ROUNDS + " ns/show");
+                    assertEquals(1, pool.size());
+                    assertEquals(ROUNDS - 1, pool.getHitCount());
+                    assertTrue(pooled[0] < plain[0]);
+                }
+            });
+        } finally {
+            scenario.close();
+        }
+    }
+
+    private static long[] measure(MainActivity activity, View anchor, XPopWindowPool pool) {
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < ROUNDS; i++) {
+            showAndDismiss(activity, anchor, pool);
+        }
+        long cost = SystemClock.elapsedRealtimeNanos() - start;
+        Debug.stopAllocCounting();
+        return new long[]{Debug.getThreadAllocCount(), cost};
+    }
+
+    private static void showAndDismiss(MainActivity activity, View anchor, XPopWindowPool pool) {
+        XPopWindow popWindow = XPopWindow.build(activity, anchor)
+                .setPool(pool)
+                .setItems(ITEMS)
+                .setDividerVerticalEnable(true);
+        popWindow.show();
+        assertTrue(popWindow.isShowing());
+        popWindow.dismiss();
+    }
+}
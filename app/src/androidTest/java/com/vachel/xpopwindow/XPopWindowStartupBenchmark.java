@@ -0,0 +1,68 @@
+package com.vachel.xpopwindow;
+
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.vachel.xpopwindow.sample.MainActivity;
+import com.vachel.xpopwindow.sample.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * 对比冷启动后首次show和预热后首次show的耗时
+ * 需要在新进程中单独运行，类加载的开销才会算在冷启动那次里
+ */
+@RunWith(AndroidJUnit4.class)
+public class XPopWindowStartupBenchmark {
+    private static final String TAG = "XPopStartupBenchmark";
+    private static final String[] COLD_ITEMS = new String[]{"复制", "删除", "粘贴", "引用", "收藏", "保存", "转发"};
+    private static final String[] WARM_ITEMS = new String[]{"转发", "收藏", "删除", "多选", "引用", "复制"};
+
+    @Test
+    public void coldVersusWarmFirstShow() {
+        ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class);
+        try {
+            final long[] cost = new long[2];
+            scenario.onActivity(new ActivityScenario.ActivityAction<MainActivity>() {
+                @Override
+                public void perform(MainActivity activity) {
+                    cost[0] = timeFirstShow(activity, COLD_ITEMS);
+                    XPopWindow.prewarm(activity, new XPopStyle.Builder(activity).build(), WARM_ITEMS, null);
+                }
+            });
+            // 等IdleHandler执行完预热
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+            scenario.onActivity(new ActivityScenario.ActivityAction<MainActivity>() {
+                @Override
+                public void perform(MainActivity activity) {
+                    XPopWindowPool pool = XPopWindowPool.of(activity);
+                    int hitCount = pool.getHitCount();
+                    cost[1] = timeFirstShow(activity, WARM_ITEMS);
+                    assertEquals(hitCount + 1, pool.getHitCount());
+                }
+            });
+            Log.i(TAG, "cold first show: " + cost[0] + " ns, warm first show: " + cost[1] + " ns");
+        } finally {
+            scenario.close();
+        }
+    }
+
+    private static long timeFirstShow(MainActivity activity, String[] items) {
+        View anchor = activity.findViewById(R.id.recycle_view);
+        long start = SystemClock.elapsedRealtimeNanos();
+        XPopWindow popWindow = XPopWindow.build(activity, anchor).setItems(items);
+        popWindow.show();
+        long cost = SystemClock.elapsedRealtimeNanos() - start;
+        assertTrue(popWindow.isShowing());
+        popWindow.dismiss();
+        return cost;
+    }
+}
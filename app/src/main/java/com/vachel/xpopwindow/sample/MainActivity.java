@@ -13,7 +13,7 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import com.vachel.xpopwindow.R;
+import com.vachel.xpopwindow.sample.R;
 import com.vachel.xpopwindow.XPopWindow;
 
 public class MainActivity extends AppCompatActivity implements XPopWindow.IXPopupListener {
@@ -48,7 +48,6 @@ public class MainActivity extends AppCompatActivity implements XPopWindow.IXPopu
                 Log.d("MainActivity", itemName);
                 // 长按展示气泡
                 XPopWindow.build(MainActivity.this, view)
-                        .bindRecyclerView(recycleView)
                         .bindLifeCycle(MainActivity.this)
                         .setItems(items)
                         .setIcons(icons)
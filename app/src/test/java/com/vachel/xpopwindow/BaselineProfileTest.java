@@ -0,0 +1,143 @@
+package com.vachel.xpopwindow;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * baseline-prof.txt里的类和方法签名必须和当前代码一致，改了方法名或参数后规则会静默失效
+ * 失败时用:baselineprofile重新生成，或手动修改对应的行
+ */
+public class BaselineProfileTest {
+    // 每个库模块带自己的profile，随aar一起合并进使用方的apk
+    private static final String[] PROFILES = new String[]{
+            "../xpopwindow/src/main/baseline-prof.txt",
+            "../xpopwindow-recyclerview/src/main/baseline-prof.txt",
+    };
+    private static final String PACKAGE = "com/vachel/xpopwindow/";
+    // [HSP]*L类名;->方法名(参数)返回值，类规则没有->部分
+    private static final Pattern RULE = Pattern.compile("^([HSP]*)L([^;]+);(?:->([^(]+)(\\(.*\\).+))?$");
+
+    @Test
+    public void rulesMatchCurrentSignatures() throws Exception {
+        List<String> errors = new ArrayList<>();
+        for (String profile : PROFILES) {
+            checkProfile(profile, errors);
+        }
+        if (!errors.isEmpty()) {
+            StringBuilder sb = new StringBuilder("stale baseline profile rules:");
+            for (String error : errors) {
+                sb.append('\n').append(error);
+            }
+            fail(sb.toString());
+        }
+    }
+
+    private void checkProfile(String profile, List<String> errors) throws Exception {
+        int ruleCount = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(new File(profile)), "UTF-8"));
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                Matcher matcher = RULE.matcher(line);
+                if (!matcher.matches()) {
+                    errors.add(profile + ":" + lineNumber + ": unparseable rule " + line);
+                    continue;
+                }
+                String className = matcher.group(2);
+                if (!className.startsWith(PACKAGE)) {
+                    continue;
+                }
+                ruleCount++;
+                Class<?> clazz;
+                try {
+                    clazz = Class.forName(className.replace('/', '.'), false, getClass().getClassLoader());
+                } catch (ClassNotFoundException e) {
+                    errors.add(profile + ":" + lineNumber + ": class not found " + className);
+                    continue;
+                }
+                String methodName = matcher.group(3);
+                if (methodName != null && !methodName.contains("*") && !hasMethod(clazz, methodName, matcher.group(4))) {
+                    errors.add(profile + ":" + lineNumber + ": method not found " + line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        assertTrue(profile + " has no rules for " + PACKAGE, ruleCount > 0);
+    }
+
+    private static boolean hasMethod(Class<?> clazz, String name, String descriptor) {
+        if ("<clinit>".equals(name)) {
+            return "()V".equals(descriptor);
+        }
+        if ("<init>".equals(name)) {
+            for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+                if (descriptor.equals(descriptor(constructor.getParameterTypes(), void.class))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (method.getName().equals(name)
+                    && descriptor.equals(descriptor(method.getParameterTypes(), method.getReturnType()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String descriptor(Class<?>[] parameterTypes, Class<?> returnType) {
+        StringBuilder sb = new StringBuilder("(");
+        for (Class<?> type : parameterTypes) {
+            sb.append(typeDescriptor(type));
+        }
+        return sb.append(')').append(typeDescriptor(returnType)).toString();
+    }
+
+    private static String typeDescriptor(Class<?> type) {
+        if (type.isArray()) {
+            // 数组的getName已经是描述符形式，如[I、[Ljava.lang.String;
+            return type.getName().replace('.', '/');
+        }
+        if (type == void.class) {
+            return "V";
+        } else if (type == boolean.class) {
+            return "Z";
+        } else if (type == byte.class) {
+            return "B";
+        } else if (type == char.class) {
+            return "C";
+        } else if (type == short.class) {
+            return "S";
+        } else if (type == int.class) {
+            return "I";
+        } else if (type == long.class) {
+            return "J";
+        } else if (type == float.class) {
+            return "F";
+        } else if (type == double.class) {
+            return "D";
+        }
+        return "L" + type.getName().replace('.', '/') + ";";
+    }
+}
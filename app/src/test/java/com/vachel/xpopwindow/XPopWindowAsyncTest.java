@@ -0,0 +1,72 @@
+package com.vachel.xpopwindow;
+
+import android.app.Activity;
+import android.os.Looper;
+
+import com.vachel.xpopwindow.sample.MainActivity;
+import com.vachel.xpopwindow.sample.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * showAsync在后台准备完成后要真正显示出来
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class XPopWindowAsyncTest {
+    private static final String[] ITEMS = new String[]{"复制", "删除", "粘贴", "引用", "收藏", "保存", "转发"};
+    private static final long TIMEOUT_MS = 5000;
+
+    @Test
+    public void pagedShowAsyncShows() throws InterruptedException {
+        Activity activity = Robolectric.buildActivity(MainActivity.class).setup().get();
+        XPopWindow popup = build(activity).setPageSize(3);
+        popup.showAsync();
+        assertFalse(popup.isShowing());
+
+        awaitShowing(popup);
+        popup.dismiss();
+
+        // 再次showAsync时当前页的数组是新生成的，按内容命中已准备好的数据直接显示
+        popup.showAsync();
+        assertTrue(popup.isShowing());
+        popup.dismiss();
+    }
+
+    @Test
+    public void itemsChangedDuringPrepareStillShows() throws InterruptedException {
+        Activity activity = Robolectric.buildActivity(MainActivity.class).setup().get();
+        XPopWindow popup = build(activity);
+        popup.showAsync();
+        // 回调要等主线程处理，这里修改一定发生在准备完成之前
+        popup.setItems(new String[]{"复制", "删除"});
+
+        awaitShowing(popup);
+        popup.dismiss();
+    }
+
+    private static XPopWindow build(Activity activity) {
+        return XPopWindow.build(activity, activity.findViewById(R.id.recycle_view))
+                .setItems(ITEMS);
+    }
+
+    /**
+     * 等后台线程准备完，再让主线程处理它post回来的回调
+     */
+    private static void awaitShowing(XPopWindow popup) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!popup.isShowing() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+        assertTrue("showAsync never showed the popup", popup.isShowing());
+    }
+}
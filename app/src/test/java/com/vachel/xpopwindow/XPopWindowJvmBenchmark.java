@@ -0,0 +1,167 @@
+package com.vachel.xpopwindow;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DividerItemDecoration;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.vachel.xpopwindow.sample.MainActivity;
+import com.vachel.xpopwindow.sample.R;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 不需要设备的基准测试，在Robolectric里跑XPopWindow的热点路径，输出ns/op和alloc bytes/op
+ * JVM拿不到对象个数，这里是线程分配的字节数，不能和:benchmark的allocs/op（对象个数）直接比较
+ * Robolectric下的绝对数值没有意义，只用于对比改动前后的变化；设备上的数据见:benchmark
+ * 默认跳过，不占用CI时间：./gradlew :app:testDebugUnitTest --tests '*XPopWindowJvmBenchmark' -PjvmBenchmark
+ * 结果写在测试报告每个用例的标准输出里
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class XPopWindowJvmBenchmark {
+    // 由app/build.gradle根据-PjvmBenchmark传入
+    private static final String ENABLED_PROPERTY = "xpop.jvmBenchmark";
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+    private static final String[] ITEMS = new String[]{"复制", "删除", "粘贴", "引用", "收藏", "保存", "转发"};
+
+    private MainActivity mActivity;
+    private View mAnchor;
+
+    @Before
+    public void setUp() {
+        assumeTrue("run with -PjvmBenchmark", Boolean.getBoolean(ENABLED_PROPERTY));
+        mActivity = Robolectric.buildActivity(MainActivity.class).setup().get();
+        mAnchor = mActivity.findViewById(R.id.recycle_view);
+    }
+
+    // 不用复用池，每次都走createPopupWindow
+    @Test
+    public void showCold() {
+        run("show cold", new Runnable() {
+            @Override
+            public void run() {
+                XPopWindow popWindow = XPopWindow.build(mActivity, mAnchor)
+                        .setPool(null)
+                        .setItems(ITEMS)
+                        .setDividerVerticalEnable(true);
+                popWindow.show();
+                popWindow.dismiss();
+            }
+        });
+    }
+
+    // 复用池命中，和showCold的差值就是createPopupWindow的开销
+    @Test
+    public void showWarm() {
+        final XPopWindowPool pool = new XPopWindowPool();
+        run("show warm", new Runnable() {
+            @Override
+            public void run() {
+                XPopWindow popWindow = XPopWindow.build(mActivity, mAnchor)
+                        .setPool(pool)
+                        .setItems(ITEMS)
+                        .setDividerVerticalEnable(true);
+                popWindow.show();
+                popWindow.dismiss();
+            }
+        });
+    }
+
+    @Test
+    public void adapterBind() {
+        XPopWindow owner = XPopWindow.build(mActivity, mAnchor).setItems(ITEMS);
+        final CxPopupWindowAdapter adapter = new CxPopupWindowAdapter(mActivity, new XPopStyle.Builder(mActivity).build());
+        adapter.bind(owner.getGridHost(), ITEMS, null);
+        final RecyclerView parent = new RecyclerView(mActivity);
+        // inflate item时要由LayoutManager生成LayoutParams，没有会抛IllegalStateException
+        parent.setLayoutManager(new GridLayoutManager(mActivity, 5));
+        final CxPopupWindowAdapter.CxPopupWindowViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+        run("adapter bind", new Runnable() {
+            int mPosition;
+
+            @Override
+            public void run() {
+                adapter.onBindViewHolder(holder, mPosition++ % ITEMS.length);
+            }
+        });
+    }
+
+    @Test
+    public void indicatorDraw() {
+        final TriangleIndicatorDrawable drawable = new XPopStyle.Builder(mActivity).build().newIndicatorDrawable();
+        drawable.setBounds(0, 0, drawable.getIntrinsicWidth(), drawable.getIntrinsicHeight());
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(drawable.getIntrinsicWidth(), drawable.getIntrinsicHeight(), Bitmap.Config.ARGB_8888));
+        run("indicator draw", new Runnable() {
+            @Override
+            public void run() {
+                drawable.draw(canvas);
+            }
+        });
+    }
+
+    @Test
+    public void dividerDraw() {
+        XPopWindow owner = XPopWindow.build(mActivity, mAnchor).setItems(ITEMS);
+        CxPopupWindowAdapter adapter = new CxPopupWindowAdapter(mActivity, new XPopStyle.Builder(mActivity).build());
+        adapter.bind(owner.getGridHost(), ITEMS, null);
+        final RecyclerView recyclerView = new RecyclerView(mActivity);
+        recyclerView.setLayoutManager(new GridLayoutManager(mActivity, 5));
+        BubblePopupDivider divider = new BubblePopupDivider(mActivity, DividerItemDecoration.VERTICAL, 5);
+        divider.setDrawable(ContextCompat.getDrawable(mActivity, R.drawable.popup_divider_line_horizontal));
+        recyclerView.addItemDecoration(divider);
+        recyclerView.setAdapter(adapter);
+        FrameLayout root = new FrameLayout(mActivity);
+        root.addView(recyclerView);
+        root.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.AT_MOST),
+                View.MeasureSpec.makeMeasureSpec(1920, View.MeasureSpec.AT_MOST));
+        root.layout(0, 0, root.getMeasuredWidth(), root.getMeasuredHeight());
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(Math.max(1, recyclerView.getWidth()), Math.max(1, recyclerView.getHeight()), Bitmap.Config.ARGB_8888));
+        // RecyclerView.onDraw只绘制ItemDecoration
+        run("divider draw", new Runnable() {
+            @Override
+            public void run() {
+                recyclerView.onDraw(canvas);
+            }
+        });
+    }
+
+    private static void run(String name, Runnable op) {
+        for (int i = 0; i < WARMUP; i++) {
+            op.run();
+        }
+        long startBytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            op.run();
+        }
+        long cost = System.nanoTime() - start;
+        long bytes = allocatedBytes() - startBytes;
+        System.out.println(String.format(Locale.US, "[XPopWindowJvmBenchmark] %-16s %10d ns/op %10d alloc bytes/op",
+                name, cost / ITERATIONS, bytes / ITERATIONS));
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
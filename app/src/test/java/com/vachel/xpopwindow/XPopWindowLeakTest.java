@@ -0,0 +1,86 @@
+package com.vachel.xpopwindow;
+
+import android.app.Activity;
+import android.view.View;
+
+import com.vachel.xpopwindow.sample.MainActivity;
+import com.vachel.xpopwindow.sample.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Activity销毁后，弹窗对象、挂起的回调和复用池都不能再留住它
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class XPopWindowLeakTest {
+    private static final String[] ITEMS = new String[]{"复制", "删除", "粘贴", "引用", "收藏", "保存", "转发"};
+
+    // 模拟调用方把弹窗存在生命周期更长的对象里
+    private XPopWindow mRetainedPopup;
+
+    @Test
+    public void showingPopupReleasesActivityOnDestroy() {
+        ActivityController<MainActivity> controller = Robolectric.buildActivity(MainActivity.class).setup();
+        WeakReference<Activity> activityRef = new WeakReference<Activity>(controller.get());
+        mRetainedPopup = showPopup(controller.get());
+        assertTrue(mRetainedPopup.isShowing());
+
+        controller.pause().stop().destroy();
+        controller = null;
+
+        assertFalse(mRetainedPopup.isShowing());
+        assertCollected(activityRef);
+        // 销毁后再show不生效
+        mRetainedPopup.show();
+        assertFalse(mRetainedPopup.isShowing());
+    }
+
+    @Test
+    public void pendingAsyncShowDoesNotRetainActivity() {
+        ActivityController<MainActivity> controller = Robolectric.buildActivity(MainActivity.class).setup();
+        WeakReference<Activity> activityRef = new WeakReference<Activity>(controller.get());
+        View anchor = controller.get().findViewById(R.id.recycle_view);
+        XPopWindow.build(controller.get(), anchor)
+                .setItems(ITEMS)
+                .setIcons(new int[]{R.mipmap.pop_icon_copy})
+                .showAsync();
+        anchor = null;
+
+        controller.pause().stop().destroy();
+        controller = null;
+
+        assertCollected(activityRef);
+    }
+
+    private static XPopWindow showPopup(Activity activity) {
+        XPopWindow popup = XPopWindow.build(activity, activity.findViewById(R.id.recycle_view))
+                .setItems(ITEMS)
+                .setDividerVerticalEnable(true)
+                .setListener((XPopWindow.IXPopupListener) activity);
+        popup.show();
+        return popup;
+    }
+
+    private static void assertCollected(WeakReference<?> ref) {
+        for (int i = 0; i < 10 && ref.get() != null; i++) {
+            // 给GC一点压力，一次System.gc()不保证回收
+            byte[] garbage = new byte[4 * 1024 * 1024];
+            garbage[0] = 1;
+            System.gc();
+            System.runFinalization();
+        }
+        assertNull("Activity is still reachable after destroy", ref.get());
+    }
+}
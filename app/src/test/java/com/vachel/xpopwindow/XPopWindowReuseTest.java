@@ -0,0 +1,55 @@
+package com.vachel.xpopwindow;
+
+import android.app.Activity;
+
+import com.vachel.xpopwindow.sample.MainActivity;
+import com.vachel.xpopwindow.sample.R;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 点击外部消失后布局回到复用池，被新弹窗取走；旧弹窗对象不能再影响新弹窗
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class XPopWindowReuseTest {
+    private static final String[] ITEMS = new String[]{"复制", "删除", "粘贴", "引用", "收藏", "保存", "转发"};
+
+    @Test
+    public void outsideDismissedPopupDoesNotControlReusedEntry() {
+        Activity activity = Robolectric.buildActivity(MainActivity.class).setup().get();
+        XPopWindowPool pool = new XPopWindowPool();
+        XPopWindow first = build(activity, pool);
+        first.show();
+        AnimatedPopupWindow host = (AnimatedPopupWindow) first.getPopupWindow();
+        // PopupWindow自己发起的消失，相当于点击外部或返回键
+        host.dismissImmediately();
+        assertFalse(first.isShowing());
+        assertNull(first.getPopupWindow());
+
+        XPopWindow second = build(activity, pool);
+        second.show();
+        assertSame(host, second.getPopupWindow());
+        assertTrue(second.isShowing());
+
+        assertFalse(first.isShowing());
+        first.dismiss();
+        assertTrue(second.isShowing());
+        second.dismiss();
+    }
+
+    private static XPopWindow build(Activity activity, XPopWindowPool pool) {
+        return XPopWindow.build(activity, activity.findViewById(R.id.recycle_view))
+                .setPool(pool)
+                .setItems(ITEMS);
+    }
+}
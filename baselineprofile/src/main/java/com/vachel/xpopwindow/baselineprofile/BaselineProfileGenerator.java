@@ -0,0 +1,156 @@
+package com.vachel.xpopwindow.baselineprofile;
+
+import android.app.UiAutomation;
+import android.os.Build;
+import android.os.ParcelFileDescriptor;
+import android.os.Process;
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import com.vachel.xpopwindow.sample.R;
+import com.vachel.xpopwindow.XPopWindow;
+import com.vachel.xpopwindow.sample.MainActivity;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * 按用户的实际操作走一遍弹窗路径：长按弹出、点击item、滚动隐藏再显示、返回键收起，再覆盖扁平、分页等其它形态
+ * 结束前让ART把profile写盘并导出到/data/local/tmp，由generateBaselineProfile任务过滤后写回各个库模块
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+    private static final String TARGET_PACKAGE = "com.vachel.xpopwindow";
+    private static final String DEVICE_PROFILE = "/data/local/tmp/xpopwindow-baseline-prof.txt";
+    // 多跑几轮，让路径上的方法被JIT记为热点
+    private static final int ITERATIONS = 10;
+    private static final long TIMEOUT_MS = 2000;
+    // 收到SIGUSR1时ART立即保存profile，不用等ProfileSaver的定时写盘
+    private static final int SIGNAL_USR1 = 10;
+    private static final long PROFILE_SAVE_WAIT_MS = 2000;
+    private static final int SCROLL_DISTANCE_PX = 200;
+    // 比XPopWindow停止滚动后重新显示的延时长一些
+    private static final long SCROLL_RESHOW_WAIT_MS = 600;
+    private static final String[] ITEMS = new String[]{"复制", "删除", "粘贴", "引用", "收藏", "保存", "转发"};
+    private static final String[] MANY_ITEMS = new String[]{"复制", "删除", "粘贴", "引用", "收藏", "保存", "转发",
+            "多选", "翻译", "搜索", "提醒", "置顶", "编辑", "分享"};
+
+    @Test
+    public void generate() throws Exception {
+        UiDevice device = UiDevice.getInstance(InstrumentationRegistry.getInstrumentation());
+        ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class);
+        try {
+            for (int i = 0; i < ITERATIONS; i++) {
+                longPress(device, "item: " + (i % 5));
+                click(device, ITEMS[i % ITEMS.length]);
+
+                // 弹窗会拦截外部触摸，滚动由代码触发：小幅滚动走重定位，大幅滚动走隐藏后重新显示
+                longPress(device, "item: 6");
+                scroll(scenario, 1);
+                scroll(scenario, SCROLL_DISTANCE_PX);
+                SystemClock.sleep(SCROLL_RESHOW_WAIT_MS);
+                device.waitForIdle();
+                device.pressBack();
+                scroll(scenario, -SCROLL_DISTANCE_PX - 1);
+
+                scenario.onActivity(new ActivityScenario.ActivityAction<MainActivity>() {
+                    @Override
+                    public void perform(MainActivity activity) {
+                        showVariants(activity);
+                    }
+                });
+                device.waitForIdle();
+            }
+            saveProfile();
+        } finally {
+            scenario.close();
+        }
+    }
+
+    // 公开API支持的其它形态，sample的长按没有覆盖到
+    private static void showVariants(MainActivity activity) {
+        ViewGroup list = activity.findViewById(R.id.recycle_view);
+        View anchor = list.getChildAt(0);
+        XPopWindow[] popups = new XPopWindow[]{
+                XPopWindow.build(activity, anchor).setItems(ITEMS).setFlatMode(true).setDividerVerticalEnable(true),
+                XPopWindow.build(activity, anchor).setItems(MANY_ITEMS).setPageSize(9),
+                XPopWindow.build(activity, anchor).setItems(ITEMS).setAutoFit(true),
+                XPopWindow.build(activity, anchor).setItems(ITEMS).setAnimation(XPopWindow.ANIMATION_SPRING),
+        };
+        for (XPopWindow popup : popups) {
+            popup.show();
+            popup.dismiss();
+        }
+    }
+
+    private static void scroll(ActivityScenario<MainActivity> scenario, final int dy) {
+        scenario.onActivity(new ActivityScenario.ActivityAction<MainActivity>() {
+            @Override
+            public void perform(MainActivity activity) {
+                activity.findViewById(R.id.recycle_view).scrollBy(0, dy);
+            }
+        });
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+    }
+
+    private static void longPress(UiDevice device, String text) {
+        UiObject2 item = device.wait(Until.findObject(By.text(text)), TIMEOUT_MS);
+        assertNotNull("list item not found: " + text, item);
+        item.longClick();
+        device.waitForIdle();
+    }
+
+    private static void click(UiDevice device, String text) {
+        UiObject2 label = device.wait(Until.findObject(By.text(text)), TIMEOUT_MS);
+        assertNotNull("popup item not found: " + text, label);
+        label.click();
+        device.waitForIdle();
+    }
+
+    /**
+     * 测试和:app在同一个进程，直接给自己发SIGUSR1写盘，再用shell导出成文本
+     */
+    private static void saveProfile() throws IOException {
+        Process.sendSignal(Process.myPid(), SIGNAL_USR1);
+        SystemClock.sleep(PROFILE_SAVE_WAIT_MS);
+        // API 31起需要显式要求输出类和方法列表
+        String dumpOption = Build.VERSION.SDK_INT >= 31 ? "--dump-classes-and-methods " : "";
+        shell("pm dump-profiles " + dumpOption + TARGET_PACKAGE);
+        shell("cp /data/misc/profman/" + TARGET_PACKAGE + "-primary.prof.txt " + DEVICE_PROFILE);
+        shell("chmod 644 " + DEVICE_PROFILE);
+    }
+
+    private static String shell(String command) throws IOException {
+        UiAutomation automation = InstrumentationRegistry.getInstrumentation().getUiAutomation();
+        ParcelFileDescriptor pfd = automation.executeShellCommand(command);
+        // 读完输出才算命令执行结束
+        InputStream in = new FileInputStream(pfd.getFileDescriptor());
+        try {
+            StringBuilder sb = new StringBuilder();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                sb.append(new String(buffer, 0, count, "UTF-8"));
+            }
+            return sb.toString();
+        } finally {
+            in.close();
+            pfd.close();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.vachel.xpopwindow.benchmark;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.vachel.xpopwindow.sample.R;
+import com.vachel.xpopwindow.TriangleIndicatorDrawable;
+import com.vachel.xpopwindow.XPopMenuView;
+import com.vachel.xpopwindow.XPopStyle;
+import com.vachel.xpopwindow.XPopWindow;
+import com.vachel.xpopwindow.XPopWindowPool;
+import com.vachel.xpopwindow.sample.MainActivity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * XPopWindow热点路径的设备基准测试，BenchmarkRule输出ns/op和allocs/op
+ * 需要访问内部类的部分（adapter bind、分割线绘制）见:app的XPopWindowJvmBenchmark，它输出的是分配字节数而不是对象个数
+ */
+@RunWith(AndroidJUnit4.class)
+public class XPopWindowBenchmark {
+    private static final String[] ITEMS = new String[]{"复制", "删除", "粘贴", "引用", "收藏", "保存", "转发"};
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private ActivityScenario<MainActivity> mScenario;
+    private MainActivity mActivity;
+    private View mAnchor;
+
+    @Before
+    public void setUp() {
+        mScenario = ActivityScenario.launch(MainActivity.class);
+        mScenario.onActivity(new ActivityScenario.ActivityAction<MainActivity>() {
+            @Override
+            public void perform(MainActivity activity) {
+                mActivity = activity;
+                mAnchor = activity.findViewById(R.id.recycle_view);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        mScenario.close();
+    }
+
+    // 每次都重新创建布局，包含createPopupWindow的开销
+    @Test
+    public void showCold() {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                BenchmarkState state = benchmarkRule.getState();
+                while (state.keepRunning()) {
+                    XPopWindow popWindow = XPopWindow.build(mActivity, mAnchor)
+                            .setPool(null)
+                            .setItems(ITEMS)
+                            .setDividerVerticalEnable(true);
+                    popWindow.show();
+                    popWindow.dismiss();
+                }
+            }
+        });
+    }
+
+    // 复用池命中，只重新绑定数据
+    @Test
+    public void showWarm() {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                XPopWindowPool pool = new XPopWindowPool();
+                BenchmarkState state = benchmarkRule.getState();
+                while (state.keepRunning()) {
+                    XPopWindow popWindow = XPopWindow.build(mActivity, mAnchor)
+                            .setPool(pool)
+                            .setItems(ITEMS)
+                            .setDividerVerticalEnable(true);
+                    popWindow.show();
+                    popWindow.dismiss();
+                }
+                pool.clear();
+            }
+        });
+    }
+
+    @Test
+    public void indicatorDraw() {
+        TriangleIndicatorDrawable drawable = new XPopStyle.Builder(mActivity).build().newIndicatorDrawable();
+        drawable.setBounds(0, 0, drawable.getIntrinsicWidth(), drawable.getIntrinsicHeight());
+        Canvas canvas = new Canvas(Bitmap.createBitmap(drawable.getIntrinsicWidth(), drawable.getIntrinsicHeight(), Bitmap.Config.ARGB_8888));
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            drawable.draw(canvas);
+        }
+    }
+
+    @Test
+    public void flatMenuDraw() {
+        final XPopMenuView[] menuView = new XPopMenuView[1];
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                menuView[0] = new XPopMenuView(mActivity, new XPopStyle.Builder(mActivity).build());
+                menuView[0].setItems(ITEMS, null, 5);
+                menuView[0].measure(View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED),
+                        View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+                menuView[0].layout(0, 0, menuView[0].getMeasuredWidth(), menuView[0].getMeasuredHeight());
+            }
+        });
+        Canvas canvas = new Canvas(Bitmap.createBitmap(menuView[0].getWidth(), menuView[0].getHeight(), Bitmap.Config.ARGB_8888));
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            menuView[0].draw(canvas);
+        }
+    }
+
+    private static void runOnMainSync(Runnable runnable) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(runnable);
+    }
+}
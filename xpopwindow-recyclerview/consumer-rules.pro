@@ -0,0 +1,4 @@
+# XPopWindow按类名反射创建网格实现
+-keep class com.vachel.xpopwindow.XPopRecyclerGrid$Factory {
+    <init>();
+}
@@ -0,0 +1,158 @@
+package com.vachel.xpopwindow;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.util.Log;
+import android.view.View;
+import android.widget.LinearLayout;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 分割线不展示横竖向的最后一条
+ */
+class BubblePopupDivider extends RecyclerView.ItemDecoration {
+    static final int HORIZONTAL = LinearLayout.HORIZONTAL;
+    static final int VERTICAL = LinearLayout.VERTICAL;
+    private static final String TAG = "DividerItem";
+    private static final int[] ATTRS = new int[]{android.R.attr.listDivider};
+    private Drawable mDivider;
+    private int mOrientation;
+    private final Rect mBounds = new Rect();
+    private DividerGrid mGrid;
+
+    BubblePopupDivider(Context context, int orientation, int spanCount) {
+        this(context, orientation);
+        mGrid = new DividerGrid(spanCount);
+    }
+
+    BubblePopupDivider(Context context, int orientation) {
+        final TypedArray a = context.obtainStyledAttributes(ATTRS);
+        mDivider = a.getDrawable(0);
+        if (mDivider == null) {
+            Log.w(TAG, "@android:attr/listDivider was not set in the theme used for this "
+                    + "DividerItemDecoration. Please set that attribute all call setDrawable()");
+        }
+        a.recycle();
+        setOrientation(orientation);
+        // 未指定span时按线性列表处理
+        mGrid = new DividerGrid(orientation == HORIZONTAL ? Integer.MAX_VALUE : 1);
+    }
+
+    public void setOrientation(int orientation) {
+        if (orientation != HORIZONTAL && orientation != VERTICAL) {
+            throw new IllegalArgumentException(
+                    "Invalid orientation. It should be either HORIZONTAL or VERTICAL");
+        }
+        mOrientation = orientation;
+    }
+
+    public void setDrawable(@NonNull Drawable drawable) {
+        if (drawable == null) {
+            throw new IllegalArgumentException("Drawable cannot be null.");
+        }
+        mDivider = drawable;
+    }
+
+    @Override
+    public void onDraw(Canvas c, RecyclerView parent, RecyclerView.State state) {
+        RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+        if (layoutManager == null || mDivider == null) {
+            return;
+        }
+        mGrid.update(state.getItemCount());
+        if (mOrientation == VERTICAL) {
+            drawVertical(c, parent, layoutManager);
+        } else {
+            drawHorizontal(c, parent, layoutManager);
+        }
+    }
+
+    private void drawVertical(Canvas canvas, RecyclerView parent, RecyclerView.LayoutManager layoutManager) {
+        canvas.save();
+        final int left;
+        final int right;
+        //noinspection AndroidLintNewApi - NewApi lint fails to handle overrides.
+        if (parent.getClipToPadding()) {
+            left = parent.getPaddingLeft();
+            right = parent.getWidth() - parent.getPaddingRight();
+            canvas.clipRect(left, parent.getPaddingTop(), right,
+                    parent.getHeight() - parent.getPaddingBottom());
+        } else {
+            left = 0;
+            right = parent.getWidth();
+        }
+
+        int lineCount = mGrid.getRowDividerCount();
+        for (int i = 0; i < lineCount; i++) {
+            final View child = layoutManager.findViewByPosition(mGrid.getRowDividerAnchor(i));
+            if (child == null) {
+                continue;
+            }
+            layoutManager.getDecoratedBoundsWithMargins(child, mBounds);
+            final int bottom = mBounds.bottom + Math.round(child.getTranslationY());
+            final int top = bottom - mDivider.getIntrinsicHeight();
+            mDivider.setBounds(left, top, right, bottom);
+            mDivider.draw(canvas);
+        }
+        canvas.restore();
+    }
+
+    private void drawHorizontal(Canvas canvas, RecyclerView parent, RecyclerView.LayoutManager layoutManager) {
+        canvas.save();
+        final int top;
+        final int bottom;
+        //noinspection AndroidLintNewApi - NewApi lint fails to handle overrides.
+        if (parent.getClipToPadding()) {
+            top = parent.getPaddingTop();
+            bottom = parent.getHeight() - parent.getPaddingBottom();
+            canvas.clipRect(parent.getPaddingLeft(), top,
+                    parent.getWidth() - parent.getPaddingRight(), bottom);
+        } else {
+            top = 0;
+            bottom = parent.getHeight();
+        }
+
+        int lineCount = mGrid.getColumnDividerCount();
+        for (int i = 0; i < lineCount; i++) {
+            final View child = layoutManager.findViewByPosition(mGrid.getColumnDividerAnchor(i));
+            if (child == null) {
+                continue;
+            }
+            layoutManager.getDecoratedBoundsWithMargins(child, mBounds);
+            final int right = mBounds.right + Math.round(child.getTranslationX());
+            final int left = right - mDivider.getIntrinsicWidth();
+            mDivider.setBounds(left, top, right, bottom);
+            mDivider.draw(canvas);
+        }
+        canvas.restore();
+    }
+
+    @Override
+    public void getItemOffsets(Rect outRect, View view, RecyclerView parent,
+                               RecyclerView.State state) {
+        if (mDivider == null) {
+            outRect.set(0, 0, 0, 0);
+            return;
+        }
+        mGrid.update(state.getItemCount());
+        int position = parent.getChildAdapterPosition(view);
+        if (mOrientation == VERTICAL) {
+            if (mGrid.hasDividerBelow(position)) {
+                outRect.set(0, 0, 0, mDivider.getIntrinsicHeight());
+            } else {
+                outRect.set(0, 0, 0, 0);
+            }
+        } else {
+            if (mGrid.hasDividerRight(position)) {
+                outRect.set(0, 0, mDivider.getIntrinsicWidth(), 0);
+            } else {
+                outRect.set(0, 0, 0, 0);
+            }
+        }
+    }
+}
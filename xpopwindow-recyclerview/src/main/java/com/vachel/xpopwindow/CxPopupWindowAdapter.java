@@ -0,0 +1,147 @@
+package com.vachel.xpopwindow;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.vachel.xpopwindow.recyclerview.R;
+
+/**
+ * 非扁平模式的item适配器，所有item共用一个点击入口
+ */
+public class CxPopupWindowAdapter extends RecyclerView.Adapter<CxPopupWindowAdapter.CxPopupWindowViewHolder> {
+    private static final float DISABLED_ALPHA = 0.38f;
+    private final Context mContext;
+    private final XPopStyle mStyle;
+    private XPopGrid.Host mHost;
+    private String[] mLabels;
+    private int[] mIcons;
+    private int mIconTint;
+    private int mIconSize;
+    private int mCellWidth;
+    private boolean[] mEnabled;
+    private XPopModel mModel;
+
+    public CxPopupWindowAdapter(Context context, XPopStyle style) {
+        this.mContext = context;
+        this.mStyle = style;
+        this.mIconSize = context.getResources().getDimensionPixelSize(R.dimen.popup_item_icon_size);
+    }
+
+    /**
+     * 绑定数据；复用时host会换成新弹窗的，点击统一交给host.performItemClick
+     */
+    void bind(XPopGrid.Host host, String[] labels, int[] icons) {
+        mHost = host;
+        mLabels = labels;
+        mIconTint = host == null ? 0 : host.getIconTint();
+        mEnabled = host == null ? null : host.getShownEnabled();
+        mCellWidth = host != null && host.getCellWidth() > 0 ? host.getCellWidth()
+                : mContext.getResources().getDimensionPixelSize(R.dimen.popup_item_width);
+        XPopModel model = host == null ? null : host.getPreparedModel();
+        // 按扁平模式准备的数据没有TextView用的排版结果
+        mModel = model != null && model.texts != null && model.matches(labels, icons, mIconTint) ? model : null;
+        if (icons != null && icons.length != labels.length) {
+            icons = null;
+        }
+        mIcons = icons;
+    }
+
+    // 所有item共用一个点击入口，点击时才取位置，不会用到bind时已经过期的position
+    private final View.OnClickListener mClickDispatcher = new View.OnClickListener() {
+        @Override
+        public void onClick(View v) {
+            if (mHost == null || !(v.getParent() instanceof RecyclerView)) {
+                return;
+            }
+            int position = ((RecyclerView) v.getParent()).getChildViewHolder(v).getAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                mHost.performItemClick(v, position);
+            }
+        }
+    };
+
+    @NonNull
+    @Override
+    public CxPopupWindowViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        CxPopupWindowViewHolder holder = new CxPopupWindowViewHolder(LayoutInflater.from(mContext).inflate(R.layout.popup_window_item, parent, false));
+        holder.itemView.setOnClickListener(mClickDispatcher);
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull CxPopupWindowViewHolder holder, int position) {
+        ViewGroup.LayoutParams layoutParams = holder.itemView.getLayoutParams();
+        if (layoutParams.width != mCellWidth) {
+            layoutParams.width = mCellWidth;
+            holder.itemView.setLayoutParams(layoutParams);
+        }
+        if (mModel == null || !setPrecomputedText(holder.tv, mModel.texts[position])) {
+            holder.tv.setText(mLabels[position]);
+        }
+        if (mIcons == null) {
+            holder.image.setVisibility(View.GONE);
+        } else {
+            holder.image.setVisibility(View.VISIBLE);
+            Bitmap bitmap = mModel == null || mModel.iconBitmaps == null ? null : mModel.iconBitmaps[position];
+            if (bitmap == null) {
+                // 同一个图标只解码一次，之后都从缓存取
+                bitmap = XPopIconCache.getInstance(mContext).get(mContext, mIcons[position], mIconTint, mIconSize);
+            }
+            if (bitmap != null) {
+                holder.image.setBackgroundDrawable(null);
+                holder.image.setImageBitmap(bitmap);
+            } else {
+                holder.image.setImageDrawable(null);
+                holder.image.setBackgroundResource(mIcons[position]);
+            }
+        }
+        boolean enabled = mEnabled == null || mEnabled[position];
+        holder.itemView.setEnabled(enabled);
+        holder.itemView.setAlpha(enabled ? 1f : DISABLED_ALPHA);
+    }
+
+    /**
+     * 排版参数和TextView不一致时PrecomputedText设置会失败，退回普通setText
+     */
+    private boolean setPrecomputedText(TextView textView, PrecomputedTextCompat text) {
+        try {
+            TextViewCompat.setPrecomputedText(textView, text);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return mLabels == null ? 0 : mLabels.length;
+    }
+
+    boolean hasIcons() {
+        return mIcons != null;
+    }
+
+    class CxPopupWindowViewHolder extends RecyclerView.ViewHolder {
+        TextView tv;
+        ImageView image;
+
+        public CxPopupWindowViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tv = itemView.findViewById(R.id.text);
+            tv.setTextColor(mStyle.getTextColorStateList());
+            image = itemView.findViewById(R.id.image);
+            // 背景只在创建时设置一次，bind时不再分配drawable
+            itemView.setBackgroundDrawable(mStyle.newItemBackground());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.vachel.xpopwindow;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+/**
+ * updateItems的增量对比：id相同视为同一项，标签、图标、可用状态都相同视为内容不变
+ */
+class ItemDiffCallback extends DiffUtil.Callback {
+    private final String[] mOldLabels;
+    private final int[] mOldIcons;
+    private final int[] mOldIds;
+    private final boolean[] mOldEnabled;
+    private final String[] mNewLabels;
+    private final int[] mNewIcons;
+    private final int[] mNewIds;
+    private final boolean[] mNewEnabled;
+
+    ItemDiffCallback(String[] oldLabels, int[] oldIcons, int[] oldIds, boolean[] oldEnabled,
+                     String[] newLabels, int[] newIcons, int[] newIds, boolean[] newEnabled) {
+        mOldLabels = oldLabels;
+        mOldIcons = oldIcons;
+        mOldIds = oldIds;
+        mOldEnabled = oldEnabled;
+        mNewLabels = newLabels;
+        mNewIcons = newIcons;
+        mNewIds = newIds;
+        mNewEnabled = newEnabled;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return mOldLabels.length;
+    }
+
+    @Override
+    public int getNewListSize() {
+        return mNewLabels.length;
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        int oldId = mOldIds == null ? oldItemPosition : mOldIds[oldItemPosition];
+        int newId = mNewIds == null ? newItemPosition : mNewIds[newItemPosition];
+        return oldId == newId;
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        int oldIcon = mOldIcons == null ? 0 : mOldIcons[oldItemPosition];
+        int newIcon = mNewIcons == null ? 0 : mNewIcons[newItemPosition];
+        boolean oldEnabled = mOldEnabled == null || mOldEnabled[oldItemPosition];
+        boolean newEnabled = mNewEnabled == null || mNewEnabled[newItemPosition];
+        return oldIcon == newIcon && oldEnabled == newEnabled
+                && mOldLabels[oldItemPosition].equals(mNewLabels[newItemPosition]);
+    }
+}
@@ -0,0 +1,77 @@
+package com.vachel.xpopwindow;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 用RecyclerView实现的item网格，XPopWindow通过类名反射创建Factory
+ */
+final class XPopRecyclerGrid implements XPopGrid {
+    private final RecyclerView mRecyclerView;
+    private final CxPopupWindowAdapter mAdapter;
+
+    private XPopRecyclerGrid(XPopGrid.Host host, int spanCount, Drawable rowDivider, Drawable columnDivider) {
+        Context context = host.getContext();
+        mRecyclerView = new RecyclerView(context);
+        mRecyclerView.setLayoutParams(new RecyclerView.LayoutParams(RecyclerView.LayoutParams.WRAP_CONTENT, RecyclerView.LayoutParams.WRAP_CONTENT));
+        mRecyclerView.setLayoutManager(new GridLayoutManager(context, spanCount));
+        mRecyclerView.setOverScrollMode(View.OVER_SCROLL_NEVER);
+        mAdapter = new CxPopupWindowAdapter(context, host.getStyle());
+        mAdapter.bind(host, host.getShownLabels(), host.getShownIcons());
+        if (rowDivider != null) {
+            BubblePopupDivider divider = new BubblePopupDivider(context, BubblePopupDivider.VERTICAL, spanCount);
+            divider.setDrawable(rowDivider);
+            mRecyclerView.addItemDecoration(divider);
+        }
+        if (columnDivider != null) {
+            BubblePopupDivider divider = new BubblePopupDivider(context, BubblePopupDivider.HORIZONTAL, spanCount);
+            divider.setDrawable(columnDivider);
+            mRecyclerView.addItemDecoration(divider);
+        }
+        mRecyclerView.setAdapter(mAdapter);
+    }
+
+    @Override
+    public View getView() {
+        return mRecyclerView;
+    }
+
+    @Override
+    public boolean hasIcons() {
+        return mAdapter.hasIcons();
+    }
+
+    @Override
+    public void bind(XPopGrid.Host host, boolean labelsChanged) {
+        String[] labels = host.getShownLabels();
+        mAdapter.bind(host, labels, host.getShownIcons());
+        if (labelsChanged) {
+            mAdapter.notifyDataSetChanged();
+        } else {
+            mAdapter.notifyItemRangeChanged(0, labels.length);
+        }
+    }
+
+    @Override
+    public void update(XPopGrid.Host host, String[] oldLabels, int[] oldIcons, int[] oldIds, boolean[] oldEnabled) {
+        DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new ItemDiffCallback(oldLabels, oldIcons, oldIds, oldEnabled,
+                host.getShownLabels(), host.getShownIcons(), host.getShownIds(), host.getShownEnabled()));
+        mAdapter.bind(host, host.getShownLabels(), host.getShownIcons());
+        diff.dispatchUpdatesTo(mAdapter);
+    }
+
+    /**
+     * 只通过反射创建，保留无参构造
+     */
+    static final class Factory implements XPopGrid.Factory {
+        @Override
+        public XPopGrid create(XPopGrid.Host host, int spanCount, Drawable rowDivider, Drawable columnDivider) {
+            return new XPopRecyclerGrid(host, spanCount, rowDivider, columnDivider);
+        }
+    }
+}
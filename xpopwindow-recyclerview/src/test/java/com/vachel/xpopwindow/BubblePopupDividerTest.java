@@ -0,0 +1,173 @@
+package com.vachel.xpopwindow;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 3列7个item排成3行：最后一行和最后一列不留分割线的位置，每条分割线只画一次
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class BubblePopupDividerTest {
+    private static final int SPAN_COUNT = 3;
+    private static final int ITEM_COUNT = 7;
+    private static final int CELL_WIDTH = 100;
+    private static final int CELL_HEIGHT = 50;
+    private static final int ROW_DIVIDER_HEIGHT = 4;
+    private static final int COLUMN_DIVIDER_WIDTH = 2;
+    private static final int SIZE = CELL_WIDTH * SPAN_COUNT;
+
+    private RecyclerView mRecyclerView;
+    private CountingDrawable mRowDivider;
+    private CountingDrawable mColumnDivider;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        mRecyclerView = new RecyclerView(context);
+        mRecyclerView.setLayoutManager(new GridLayoutManager(context, SPAN_COUNT));
+        mRecyclerView.setAdapter(new FixedSizeAdapter());
+
+        mRowDivider = new CountingDrawable(0, ROW_DIVIDER_HEIGHT);
+        BubblePopupDivider rowDecoration = new BubblePopupDivider(context, BubblePopupDivider.VERTICAL, SPAN_COUNT);
+        rowDecoration.setDrawable(mRowDivider);
+        mRecyclerView.addItemDecoration(rowDecoration);
+
+        mColumnDivider = new CountingDrawable(COLUMN_DIVIDER_WIDTH, 0);
+        BubblePopupDivider columnDecoration = new BubblePopupDivider(context, BubblePopupDivider.HORIZONTAL, SPAN_COUNT);
+        columnDecoration.setDrawable(mColumnDivider);
+        mRecyclerView.addItemDecoration(columnDecoration);
+
+        mRecyclerView.measure(View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(SIZE, View.MeasureSpec.EXACTLY));
+        mRecyclerView.layout(0, 0, SIZE, SIZE);
+    }
+
+    @Test
+    public void offsetsSkipLastRowAndColumn() {
+        assertEquals(ITEM_COUNT, mRecyclerView.getChildCount());
+        RecyclerView.LayoutManager layoutManager = mRecyclerView.getLayoutManager();
+        Rect insets = new Rect();
+        for (int i = 0; i < mRecyclerView.getChildCount(); i++) {
+            View child = mRecyclerView.getChildAt(i);
+            int position = mRecyclerView.getChildAdapterPosition(child);
+            layoutManager.calculateItemDecorationsForChild(child, insets);
+            int row = position / SPAN_COUNT;
+            int column = position % SPAN_COUNT;
+            assertEquals("left " + position, 0, insets.left);
+            assertEquals("top " + position, 0, insets.top);
+            assertEquals("right " + position, column < SPAN_COUNT - 1 ? COLUMN_DIVIDER_WIDTH : 0, insets.right);
+            assertEquals("bottom " + position, row < 2 ? ROW_DIVIDER_HEIGHT : 0, insets.bottom);
+        }
+    }
+
+    @Test
+    public void drawsEachDividerOnce() {
+        Bitmap bitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+        mRecyclerView.draw(new Canvas(bitmap));
+
+        // 3行之间2条横线，贴在第0、1行的底部
+        assertEquals(2, mRowDivider.drawCount);
+        int rowBottom = CELL_HEIGHT + ROW_DIVIDER_HEIGHT;
+        assertEquals(new Rect(0, rowBottom - ROW_DIVIDER_HEIGHT, SIZE, rowBottom), mRowDivider.drawnBounds.get(0));
+        assertEquals(new Rect(0, 2 * rowBottom - ROW_DIVIDER_HEIGHT, SIZE, 2 * rowBottom), mRowDivider.drawnBounds.get(1));
+
+        // 3列之间2条竖线，贴在第0、1列的右侧
+        assertEquals(2, mColumnDivider.drawCount);
+        assertEquals(new Rect(CELL_WIDTH - COLUMN_DIVIDER_WIDTH, 0, CELL_WIDTH, SIZE), mColumnDivider.drawnBounds.get(0));
+        assertEquals(new Rect(2 * CELL_WIDTH - COLUMN_DIVIDER_WIDTH, 0, 2 * CELL_WIDTH, SIZE), mColumnDivider.drawnBounds.get(1));
+
+        // 再画一帧，次数只按分割线条数增加
+        mRecyclerView.draw(new Canvas(bitmap));
+        assertEquals(4, mRowDivider.drawCount);
+        assertEquals(4, mColumnDivider.drawCount);
+    }
+
+    private static class FixedSizeAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = new View(parent.getContext());
+            // 宽度由GridLayoutManager按列宽减去分割线的位置决定
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, CELL_HEIGHT));
+            return new RecyclerView.ViewHolder(view) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return ITEM_COUNT;
+        }
+    }
+
+    /**
+     * 只记录draw的次数和每次的bounds
+     */
+    private static class CountingDrawable extends Drawable {
+        private final int mWidth;
+        private final int mHeight;
+        int drawCount;
+        final List<Rect> drawnBounds = new ArrayList<>();
+
+        CountingDrawable(int width, int height) {
+            mWidth = width;
+            mHeight = height;
+        }
+
+        @Override
+        public void draw(@NonNull Canvas canvas) {
+            drawCount++;
+            drawnBounds.add(new Rect(getBounds()));
+        }
+
+        @Override
+        public int getIntrinsicWidth() {
+            return mWidth;
+        }
+
+        @Override
+        public int getIntrinsicHeight() {
+            return mHeight;
+        }
+
+        @Override
+        public void setAlpha(int alpha) {
+        }
+
+        @Override
+        public void setColorFilter(ColorFilter colorFilter) {
+        }
+
+        @Override
+        public int getOpacity() {
+            return PixelFormat.TRANSLUCENT;
+        }
+    }
+}
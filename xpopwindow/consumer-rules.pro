@@ -0,0 +1,4 @@
+# 生命周期回调通过注解反射调用
+-keepclassmembers class com.vachel.xpopwindow.** {
+    @androidx.lifecycle.OnLifecycleEvent <methods>;
+}
@@ -0,0 +1,73 @@
+package com.vachel.xpopwindow;
+
+import android.view.View;
+import android.widget.PopupWindow;
+
+/**
+ * 带显示/消失动画的PopupWindow，动画见BubbleAnimator
+ * 点击外部、返回键等PopupWindow自己发起的dismiss也会先播放消失动画
+ */
+class AnimatedPopupWindow extends PopupWindow implements XPopHost {
+    private final BubbleAnimator mAnimator = new BubbleAnimator();
+    private final Runnable mDismissRunnable = new Runnable() {
+        @Override
+        public void run() {
+            dismissImmediately();
+        }
+    };
+
+    AnimatedPopupWindow(View contentView, int width, int height, boolean focusable) {
+        super(contentView, width, height, focusable);
+    }
+
+    @Override
+    public void setAnimation(int animation) {
+        mAnimator.setAnimation(animation);
+    }
+
+    /**
+     * showAtLocation之后调用，从指示器尖端处放大淡入
+     */
+    @Override
+    public void animateIn(float pivotX, float pivotY) {
+        mAnimator.animateIn(getContentView(), pivotX, pivotY);
+    }
+
+    @Override
+    public void setPivot(float pivotX, float pivotY) {
+        mAnimator.setPivot(getContentView(), pivotX, pivotY);
+    }
+
+    /**
+     * 停止正在进行的显示动画，直接到最终状态；弹窗被重新定位时弹簧回弹不再继续
+     */
+    @Override
+    public void finishAnimation() {
+        mAnimator.finish(getContentView());
+    }
+
+    @Override
+    public boolean isSpring() {
+        return mAnimator.isSpring();
+    }
+
+    @Override
+    public void dismiss() {
+        if (mAnimator.isDismissing()) {
+            // 消失动画进行中
+            return;
+        }
+        if (!isShowing() || !mAnimator.animateOut(getContentView(), mDismissRunnable)) {
+            dismissImmediately();
+        }
+    }
+
+    /**
+     * 不播放动画直接消失；滚动、onStop和重建时使用
+     */
+    @Override
+    public void dismissImmediately() {
+        mAnimator.reset(getContentView());
+        super.dismiss();
+    }
+}
@@ -0,0 +1,115 @@
+package com.vachel.xpopwindow;
+
+import android.view.View;
+import android.view.ViewPropertyAnimator;
+import android.view.animation.AccelerateInterpolator;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.OvershootInterpolator;
+
+/**
+ * 气泡的显示/消失动画，PopupWindow和覆盖层两种宿主共用
+ * 动画只改contentView的缩放和透明度，配合withLayer每帧只更新RenderNode属性，不触发布局
+ */
+final class BubbleAnimator {
+    private static final float HIDDEN_SCALE = 0.8f;
+    private static final long SHOW_DURATION_MS = 150;
+    private static final long SPRING_DURATION_MS = 300;
+    private static final long DISMISS_DURATION_MS = 120;
+    private static final float SPRING_TENSION = 1.5f;
+
+    private int mAnimation = XPopWindow.ANIMATION_NONE;
+    private boolean mDismissing;
+
+    void setAnimation(int animation) {
+        mAnimation = animation;
+    }
+
+    boolean isSpring() {
+        return mAnimation == XPopWindow.ANIMATION_SPRING;
+    }
+
+    boolean isDismissing() {
+        return mDismissing;
+    }
+
+    /**
+     * 从指示器尖端处放大淡入
+     */
+    void animateIn(View view, float pivotX, float pivotY) {
+        if (mAnimation == XPopWindow.ANIMATION_NONE || view == null) {
+            return;
+        }
+        mDismissing = false;
+        view.animate().cancel();
+        view.setPivotX(pivotX);
+        view.setPivotY(pivotY);
+        view.setScaleX(HIDDEN_SCALE);
+        view.setScaleY(HIDDEN_SCALE);
+        view.setAlpha(0f);
+        ViewPropertyAnimator animator = view.animate().scaleX(1f).scaleY(1f).alpha(1f).withLayer();
+        if (mAnimation == XPopWindow.ANIMATION_SPRING) {
+            animator.setDuration(SPRING_DURATION_MS).setInterpolator(new OvershootInterpolator(SPRING_TENSION));
+        } else {
+            animator.setDuration(SHOW_DURATION_MS).setInterpolator(new DecelerateInterpolator());
+        }
+        animator.start();
+    }
+
+    /**
+     * 指示器位置变化后同步动画中心
+     */
+    void setPivot(View view, float pivotX, float pivotY) {
+        if (mAnimation != XPopWindow.ANIMATION_NONE && view != null) {
+            view.setPivotX(pivotX);
+            view.setPivotY(pivotY);
+        }
+    }
+
+    /**
+     * 停止正在进行的显示动画，直接到最终状态
+     */
+    void finish(View view) {
+        if (mDismissing || view == null) {
+            return;
+        }
+        view.animate().cancel();
+        resetViewState(view);
+    }
+
+    /**
+     * 播放消失动画，结束后执行endAction
+     *
+     * @return false表示不需要动画，调用方直接消失
+     */
+    boolean animateOut(View view, Runnable endAction) {
+        if (mAnimation == XPopWindow.ANIMATION_NONE || view == null) {
+            return false;
+        }
+        mDismissing = true;
+        view.animate().cancel();
+        view.animate().scaleX(HIDDEN_SCALE).scaleY(HIDDEN_SCALE).alpha(0f)
+                .setDuration(DISMISS_DURATION_MS)
+                .setInterpolator(new AccelerateInterpolator())
+                .withLayer()
+                .withEndAction(endAction)
+                .start();
+        return true;
+    }
+
+    /**
+     * 取消动画并恢复原状；布局会被复用池复用
+     */
+    void reset(View view) {
+        if (view != null) {
+            view.animate().cancel();
+            resetViewState(view);
+        }
+        mDismissing = false;
+    }
+
+    private static void resetViewState(View view) {
+        view.setScaleX(1f);
+        view.setScaleY(1f);
+        view.setAlpha(1f);
+    }
+}
@@ -0,0 +1,69 @@
+package com.vachel.xpopwindow;
+
+/**
+ * 分割线的网格计算；item个数变化时才重新计算行列数
+ * 横线画在除最后一行外每行的底部，竖线画在除最后一列外每列的右侧
+ */
+final class DividerGrid {
+    private final int mSpanCount;
+    private int mItemCount = -1;
+    private int mRowCount;
+    private int mColumnCount;
+
+    DividerGrid(int spanCount) {
+        mSpanCount = Math.max(spanCount, 1);
+    }
+
+    /**
+     * @return item个数是否有变化
+     */
+    boolean update(int itemCount) {
+        if (itemCount == mItemCount) {
+            return false;
+        }
+        mItemCount = itemCount;
+        mRowCount = itemCount <= 0 ? 0 : (itemCount - 1) / mSpanCount + 1;
+        mColumnCount = Math.min(itemCount, mSpanCount);
+        return true;
+    }
+
+    int getRowCount() {
+        return mRowCount;
+    }
+
+    int getColumnCount() {
+        return mColumnCount;
+    }
+
+    boolean hasDividerBelow(int position) {
+        return position >= 0 && position / mSpanCount < mRowCount - 1;
+    }
+
+    boolean hasDividerRight(int position) {
+        return position >= 0 && position % mSpanCount < mColumnCount - 1;
+    }
+
+    // 行之间横线的条数
+    int getRowDividerCount() {
+        return Math.max(mRowCount - 1, 0);
+    }
+
+    // 列之间竖线的条数
+    int getColumnDividerCount() {
+        return Math.max(mColumnCount - 1, 0);
+    }
+
+    /**
+     * 第line条横线以哪个item的底部为准（该行第一个）
+     */
+    int getRowDividerAnchor(int line) {
+        return line * mSpanCount;
+    }
+
+    /**
+     * 第line条竖线以哪个item的右侧为准（第一行的item）
+     */
+    int getColumnDividerAnchor(int line) {
+        return line;
+    }
+}
@@ -0,0 +1,131 @@
+package com.vachel.xpopwindow;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PixelFormat;
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 气泡的三角指示器；正反两个Path按尺寸只创建一次，draw时不分配对象
+ * 方向在配置时确定，显示在anchorView下方时尖朝上
+ */
+public class TriangleIndicatorDrawable extends Drawable {
+    private final IndicatorState mState;
+    private final Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private boolean mPointUp;
+
+    public TriangleIndicatorDrawable(int widthPixel, int heightPixel, int color) {
+        this(new IndicatorState(widthPixel, heightPixel, color));
+    }
+
+    private TriangleIndicatorDrawable(IndicatorState state) {
+        mState = state;
+        mPaint.setStyle(Paint.Style.FILL);
+        mPaint.setColor(state.mColor);
+    }
+
+    /**
+     * @param pointUp true: 正三角，弹窗在anchorView下方；false: 倒三角，弹窗在上方
+     */
+    public void setPointUp(boolean pointUp) {
+        if (mPointUp != pointUp) {
+            mPointUp = pointUp;
+            invalidateSelf();
+        }
+    }
+
+    public boolean isPointUp() {
+        return mPointUp;
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        canvas.drawPath(mPointUp ? mState.mUpPath : mState.mDownPath, mPaint);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        // 和原色的alpha叠加
+        int newAlpha = Color.alpha(mState.mColor) * alpha / 255;
+        if (mPaint.getAlpha() != newAlpha) {
+            mPaint.setAlpha(newAlpha);
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public int getAlpha() {
+        return mPaint.getAlpha();
+    }
+
+    @Override
+    public void setColorFilter(@Nullable ColorFilter colorFilter) {
+        mPaint.setColorFilter(colorFilter);
+        invalidateSelf();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return mState.mWidth;
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return mState.mHeight;
+    }
+
+    @Nullable
+    @Override
+    public ConstantState getConstantState() {
+        return mState;
+    }
+
+    /**
+     * 同尺寸同颜色的指示器共享Path
+     */
+    static class IndicatorState extends ConstantState {
+        final int mWidth;
+        final int mHeight;
+        final int mColor;
+        final Path mUpPath = new Path();
+        final Path mDownPath = new Path();
+
+        IndicatorState(int width, int height, int color) {
+            mWidth = width;
+            mHeight = height;
+            mColor = color;
+            //倒三角
+            mDownPath.moveTo(0f, 0f);
+            mDownPath.lineTo(width, 0f);
+            mDownPath.lineTo(width / 2f, height);
+            mDownPath.close();
+            //正三角
+            mUpPath.moveTo(0f, height);
+            mUpPath.lineTo(width, height);
+            mUpPath.lineTo(width / 2f, 0f);
+            mUpPath.close();
+        }
+
+        @NonNull
+        @Override
+        public Drawable newDrawable() {
+            return new TriangleIndicatorDrawable(this);
+        }
+
+        @Override
+        public int getChangingConfigurations() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.vachel.xpopwindow;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * 跟踪anchorView在屏幕上的位置，不依赖具体的滚动容器（RecyclerView、NestedScrollView、ViewPager2、AppBarLayout等都适用）
+ * 滚动和布局变化时各由ViewTreeObserver在一次遍历中最多回调一次，位置真正变化时才通知
+ */
+final class XPopAnchorTracker implements ViewTreeObserver.OnScrollChangedListener, ViewTreeObserver.OnGlobalLayoutListener {
+    private final Rect mVisibleRect = new Rect();
+    private View mAnchorView;
+    private ViewTreeObserver mObserver;
+    private int[] mLocation;
+    private Callback mCallback;
+
+    interface Callback {
+        /**
+         * location已更新为新位置
+         */
+        void onAnchorMoved(int[] location, int dx, int dy);
+
+        // anchorView被隐藏、移出窗口或滚出可见区域
+        void onAnchorHidden();
+    }
+
+    /**
+     * @param location anchorView当前的屏幕位置，之后原地更新
+     */
+    void start(View anchorView, int[] location, Callback callback) {
+        stop();
+        mAnchorView = anchorView;
+        mLocation = location;
+        mCallback = callback;
+        mObserver = anchorView.getViewTreeObserver();
+        mObserver.addOnScrollChangedListener(this);
+        mObserver.addOnGlobalLayoutListener(this);
+    }
+
+    void stop() {
+        if (mObserver != null && mObserver.isAlive()) {
+            mObserver.removeOnScrollChangedListener(this);
+            mObserver.removeOnGlobalLayoutListener(this);
+        }
+        mObserver = null;
+        mAnchorView = null;
+        mCallback = null;
+    }
+
+    boolean isTracking() {
+        return mAnchorView != null;
+    }
+
+    @Override
+    public void onScrollChanged() {
+        check();
+    }
+
+    @Override
+    public void onGlobalLayout() {
+        check();
+    }
+
+    private void check() {
+        if (mAnchorView == null) {
+            return;
+        }
+        if (!mAnchorView.isShown() || !mAnchorView.getGlobalVisibleRect(mVisibleRect)) {
+            mCallback.onAnchorHidden();
+            return;
+        }
+        int lastX = mLocation[0];
+        int lastY = mLocation[1];
+        mAnchorView.getLocationOnScreen(mLocation);
+        if (lastX != mLocation[0] || lastY != mLocation[1]) {
+            mCallback.onAnchorMoved(mLocation, mLocation[0] - lastX, mLocation[1] - lastY);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.vachel.xpopwindow;
+
+import java.util.Arrays;
+
+/**
+ * 复用池和尺寸缓存的key：标签数组、若干int和一个样式对象，按内容比较，哈希在填充时累加
+ * 查找时在主线程复用同一个实例，不拼接字符串也不分配；放进缓存时用copy()保存一份
+ */
+final class XPopCacheKey {
+    private static final int MAX_VALUES = 16;
+
+    private String[] mLabels;
+    private final int[] mValues;
+    private int mSize;
+    private Object mExtra;
+    private int mHash;
+
+    XPopCacheKey() {
+        this(MAX_VALUES);
+    }
+
+    private XPopCacheKey(int capacity) {
+        mValues = new int[capacity];
+    }
+
+    /**
+     * @param labels 按内容比较，null表示不参与
+     * @param extra  按equals比较，null表示不参与
+     */
+    XPopCacheKey reset(String[] labels, Object extra) {
+        mLabels = labels;
+        mExtra = extra;
+        mSize = 0;
+        mHash = 31 * Arrays.hashCode(labels) + (extra == null ? 0 : extra.hashCode());
+        return this;
+    }
+
+    XPopCacheKey add(int value) {
+        mValues[mSize++] = value;
+        mHash = 31 * mHash + value;
+        return this;
+    }
+
+    XPopCacheKey add(boolean value) {
+        return add(value ? 1 : 0);
+    }
+
+    XPopCacheKey add(float value) {
+        return add(Float.floatToIntBits(value));
+    }
+
+    /**
+     * 标签数组也拷贝一份，调用方之后修改数组不会影响已缓存的key
+     */
+    XPopCacheKey copy() {
+        XPopCacheKey key = new XPopCacheKey(mSize);
+        key.mLabels = mLabels == null ? null : mLabels.clone();
+        System.arraycopy(mValues, 0, key.mValues, 0, mSize);
+        key.mSize = mSize;
+        key.mExtra = mExtra;
+        key.mHash = mHash;
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof XPopCacheKey)) {
+            return false;
+        }
+        XPopCacheKey that = (XPopCacheKey) o;
+        if (mHash != that.mHash || mSize != that.mSize) {
+            return false;
+        }
+        for (int i = 0; i < mSize; i++) {
+            if (mValues[i] != that.mValues[i]) {
+                return false;
+            }
+        }
+        return (mExtra == null ? that.mExtra == null : mExtra.equals(that.mExtra))
+                && Arrays.equals(mLabels, that.mLabels);
+    }
+
+    @Override
+    public int hashCode() {
+        return mHash;
+    }
+}
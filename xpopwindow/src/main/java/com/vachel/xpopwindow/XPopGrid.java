@@ -0,0 +1,64 @@
+package com.vachel.xpopwindow;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+
+/**
+ * 非扁平模式下承载item的网格，实现在xpopwindow-recyclerview模块里
+ * 核心模块不依赖RecyclerView，没有引入该模块时XPopWindow只使用扁平模式
+ */
+interface XPopGrid {
+    View getView();
+
+    boolean hasIcons();
+
+    /**
+     * 重新绑定host当前显示的数据；复用时host会换成新弹窗的，labelsChanged为false时只刷新内容
+     */
+    void bind(Host host, boolean labelsChanged);
+
+    /**
+     * 显示中增量更新：和旧数据按id对比，只刷新变化的item
+     */
+    void update(Host host, String[] oldLabels, int[] oldIcons, int[] oldIds, boolean[] oldEnabled);
+
+    /**
+     * 网格需要的弹窗数据，由XPopWindow提供；网格只通过它读取，不直接访问XPopWindow的字段
+     */
+    interface Host {
+        Context getContext();
+
+        XPopStyle getStyle();
+
+        // 当前显示的一页，分页时末尾多一个"更多"
+        String[] getShownLabels();
+
+        int[] getShownIcons();
+
+        int[] getShownIds();
+
+        boolean[] getShownEnabled();
+
+        int getIconTint();
+
+        // 自动排版算出的格子宽度，0表示用默认宽度
+        int getCellWidth();
+
+        // showAsync准备好的数据，没有时为null
+        XPopModel getPreparedModel();
+
+        /**
+         * item点击统一走这里，经过弹窗的防抖和单次回调检查
+         */
+        void performItemClick(View view, int shownIndex);
+    }
+
+    interface Factory {
+        /**
+         * @param rowDivider    行之间的分割线，null表示不显示
+         * @param columnDivider 列之间的分割线，null表示不显示
+         */
+        XPopGrid create(Host host, int spanCount, Drawable rowDivider, Drawable columnDivider);
+    }
+}
@@ -0,0 +1,42 @@
+package com.vachel.xpopwindow;
+
+import android.view.View;
+import android.widget.PopupWindow;
+
+/**
+ * 承载气泡的宿主：AnimatedPopupWindow（独立窗口）或XPopOverlayHost（画在Activity的DecorView里）
+ * 方法签名和PopupWindow一致，坐标都是屏幕坐标
+ */
+interface XPopHost {
+    void setAnimation(int animation);
+
+    void setWidth(int width);
+
+    void setHeight(int height);
+
+    void setOnDismissListener(PopupWindow.OnDismissListener listener);
+
+    void showAtLocation(View parent, int gravity, int x, int y);
+
+    /**
+     * showAtLocation之后调用，从指示器尖端处放大淡入
+     */
+    void animateIn(float pivotX, float pivotY);
+
+    void update(int x, int y, int width, int height);
+
+    void setPivot(float pivotX, float pivotY);
+
+    void finishAnimation();
+
+    boolean isSpring();
+
+    boolean isShowing();
+
+    /**
+     * 有动画时先播放消失动画
+     */
+    void dismiss();
+
+    void dismissImmediately();
+}
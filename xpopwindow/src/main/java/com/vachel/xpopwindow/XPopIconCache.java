@@ -0,0 +1,165 @@
+package com.vachel.xpopwindow;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+
+/**
+ * 弹窗图标缓存，按资源id、着色和目标尺寸缓存解码好的Bitmap，所有弹窗共用
+ * 容量按字节计算；内存紧张时随onTrimMemory缩小或清空
+ */
+public class XPopIconCache implements ComponentCallbacks2 {
+    private static final int MAX_CACHE_BYTES = 2 * 1024 * 1024;
+    private static XPopIconCache sInstance;
+
+    private final int mMaxSize;
+    private final LruCache<String, Bitmap> mCache;
+
+    public static synchronized XPopIconCache getInstance(@NonNull Context context) {
+        if (sInstance == null) {
+            sInstance = new XPopIconCache(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private XPopIconCache(Context appContext) {
+        mMaxSize = (int) Math.min(Runtime.getRuntime().maxMemory() / 64, MAX_CACHE_BYTES);
+        mCache = new LruCache<String, Bitmap>(mMaxSize) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getByteCount();
+            }
+        };
+        appContext.registerComponentCallbacks(this);
+    }
+
+    /**
+     * 取size*size大小的图标，没有时解码；可以在后台线程调用
+     *
+     * @param tint 着色，0表示不着色
+     */
+    public Bitmap get(@NonNull Context context, int resId, int tint, int size) {
+        if (resId == 0) {
+            return null;
+        }
+        Resources res = context.getResources();
+        String key = resId + "|" + tint + "|" + size + "|" + res.getDisplayMetrics().densityDpi;
+        Bitmap bitmap = mCache.get(key);
+        if (bitmap == null) {
+            bitmap = decode(context, resId, size);
+            if (bitmap != null) {
+                if (tint != 0) {
+                    bitmap = tint(bitmap, tint);
+                }
+                mCache.put(key, bitmap);
+            }
+        }
+        return bitmap;
+    }
+
+    public int getHitCount() {
+        return mCache.hitCount();
+    }
+
+    public int getMissCount() {
+        return mCache.missCount();
+    }
+
+    public int getEvictionCount() {
+        return mCache.evictionCount();
+    }
+
+    public int size() {
+        return mCache.size();
+    }
+
+    public void clear() {
+        mCache.evictAll();
+    }
+
+    /**
+     * 位图资源先按inSampleSize降采样再缩放到正好size；vector等其他drawable直接画到size大小的Bitmap上
+     */
+    private static Bitmap decode(Context context, int resId, int size) {
+        Resources res = context.getResources();
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(res, resId, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return render(context, resId, size);
+        }
+        int sampleSize = 1;
+        while (options.outWidth / (sampleSize * 2) >= size && options.outHeight / (sampleSize * 2) >= size) {
+            sampleSize *= 2;
+        }
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        // 不按density缩放，尺寸由这里决定
+        options.inScaled = false;
+        Bitmap decoded = BitmapFactory.decodeResource(res, resId, options);
+        if (decoded == null || decoded.getWidth() == size && decoded.getHeight() == size) {
+            return decoded;
+        }
+        Bitmap scaled = Bitmap.createScaledBitmap(decoded, size, size, true);
+        if (scaled != decoded) {
+            decoded.recycle();
+        }
+        return scaled;
+    }
+
+    private static Bitmap render(Context context, int resId, int size) {
+        Drawable drawable;
+        try {
+            drawable = ContextCompat.getDrawable(context, resId);
+        } catch (Resources.NotFoundException e) {
+            return null;
+        }
+        if (drawable == null) {
+            return null;
+        }
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        drawable.setBounds(0, 0, size, size);
+        drawable.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    private static Bitmap tint(Bitmap source, int tint) {
+        Bitmap bitmap = Bitmap.createBitmap(source.getWidth(), source.getHeight(), Bitmap.Config.ARGB_8888);
+        Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        paint.setColorFilter(new PorterDuffColorFilter(tint, PorterDuff.Mode.SRC_IN));
+        new Canvas(bitmap).drawBitmap(source, 0, 0, paint);
+        source.recycle();
+        return bitmap;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_MODERATE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            // 快要被回收或前台内存极低，全部释放
+            mCache.evictAll();
+        } else if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_LOW) {
+            mCache.trimToSize(mMaxSize / 2);
+        }
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+    }
+
+    @Override
+    public void onLowMemory() {
+        mCache.evictAll();
+    }
+}
@@ -0,0 +1,89 @@
+package com.vachel.xpopwindow;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 弹窗的一项，不可变；id用于点击回调和增量更新时识别同一项
+ * 用法参照      List<XPopItem> items = new ArrayList<>();
+ *              items.add(new XPopItem(ID_COPY, "复制", R.mipmap.pop_icon_copy));
+ *              items.add(new XPopItem(ID_PASTE, "粘贴", R.mipmap.pop_icon_copy, clipboardHasText, true));
+ */
+public final class XPopItem {
+    private final int mId;
+    private final String mLabel;
+    private final int mIcon;
+    private final boolean mEnabled;
+    private final boolean mVisible;
+
+    public XPopItem(int id, @NonNull String label) {
+        this(id, label, 0);
+    }
+
+    // icon为0表示没有图标
+    public XPopItem(int id, @NonNull String label, int icon) {
+        this(id, label, icon, true, true);
+    }
+
+    /**
+     * @param enabled 不可用时置灰且不响应点击
+     * @param visible 不可见时不占位置
+     */
+    public XPopItem(int id, @NonNull String label, int icon, boolean enabled, boolean visible) {
+        mId = id;
+        mLabel = label;
+        mIcon = icon;
+        mEnabled = enabled;
+        mVisible = visible;
+    }
+
+    public int getId() {
+        return mId;
+    }
+
+    public String getLabel() {
+        return mLabel;
+    }
+
+    public int getIcon() {
+        return mIcon;
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    public boolean isVisible() {
+        return mVisible;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof XPopItem)) {
+            return false;
+        }
+        XPopItem that = (XPopItem) o;
+        return mId == that.mId
+                && mIcon == that.mIcon
+                && mEnabled == that.mEnabled
+                && mVisible == that.mVisible
+                && mLabel.equals(that.mLabel);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mId;
+        result = 31 * result + mLabel.hashCode();
+        result = 31 * result + mIcon;
+        result = 31 * result + (mEnabled ? 1 : 0);
+        result = 31 * result + (mVisible ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "XPopItem{" + mId + ", " + mLabel + "}";
+    }
+}
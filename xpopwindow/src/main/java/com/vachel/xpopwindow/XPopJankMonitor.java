@@ -0,0 +1,304 @@
+package com.vachel.xpopwindow;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Display;
+import android.view.FrameMetrics;
+import android.view.View;
+import android.view.Window;
+
+import androidx.annotation.RequiresApi;
+
+import java.util.Locale;
+
+/**
+ * 弹窗显示期间宿主窗口的掉帧统计，基于FrameMetrics，API 24以下不做任何事
+ * 用法参照      XPopWindow.setDefaultJankMonitor(new XPopJankMonitor(listener));
+ * 帧按阶段归类；统计只写预先分配好的数组，回调里不分配对象；所有方法都在主线程调用
+ */
+public class XPopJankMonitor {
+    // show()所在的那一帧，包含创建布局和showAtLocation
+    public static final int PHASE_CREATE = 0;
+    // 弹窗显示后的第一帧
+    public static final int PHASE_FIRST_DRAW = 1;
+    // 显示中的其它帧，主要是滚动时跟随重定位或隐藏后等待重新显示
+    public static final int PHASE_REPOSITION = 2;
+    // dismiss之后到停止统计
+    public static final int PHASE_DISMISS = 3;
+    public static final int PHASE_COUNT = 4;
+
+    // 和Android vitals一致，超过700ms算冻结帧
+    static final long FROZEN_FRAME_NANOS = 700_000_000L;
+    static final long DEFAULT_FRAME_BUDGET_NANOS = 16_666_667L;
+    // 弹窗结束后再等几帧，收齐dismiss阶段已经画完但还没回调的帧
+    private static final long DETACH_DELAY_MS = 100;
+    private static final int MARK_CAPACITY = 16;
+    private static final String[] PHASE_NAMES = {"create", "firstDraw", "reposition", "dismiss"};
+    private static final int BUCKET_COUNT = XPopMetricsAggregator.BUCKET_COUNT;
+
+    /**
+     * 一次弹窗（包括滚动后的重新显示）结束、停止统计时回调，数据是累计值，需要按次统计时在回调里reset
+     */
+    public interface Listener {
+        void onJankReport(XPopJankMonitor monitor);
+    }
+
+    private final Listener mListener;
+    private final long[] mHistograms = new long[PHASE_COUNT * BUCKET_COUNT];
+    private final long[] mFrameCounts = new long[PHASE_COUNT];
+    private final long[] mSlowCounts = new long[PHASE_COUNT];
+    private final long[] mFrozenCounts = new long[PHASE_COUNT];
+    private long mDroppedReports;
+    // 阶段切换的时间点，按时间顺序的环形队列；帧回调有延迟，按帧的vsync时间找所属阶段
+    private final long[] mMarkTimes = new long[MARK_CAPACITY];
+    private final int[] mMarkPhases = new int[MARK_CAPACITY];
+    private int mMarkStart;
+    private int mMarkCount;
+    private int mPhase = -1;
+    private long mFrameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+
+    private Handler mHandler;
+    private Window mWindow;
+    private Object mFrameListener;
+    // 正在显示的弹窗个数，多个弹窗可以共用一个monitor
+    private int mActiveCount;
+
+    private final Runnable mDetachRunnable = new Runnable() {
+        @Override
+        public void run() {
+            detach();
+        }
+    };
+
+    public XPopJankMonitor(Listener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * 弹窗开始显示，挂到anchorView所在Activity的窗口上
+     */
+    void start(View anchorView) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return;
+        }
+        if (mHandler == null) {
+            mHandler = new Handler(Looper.getMainLooper());
+        }
+        mHandler.removeCallbacks(mDetachRunnable);
+        mActiveCount++;
+        Activity activity = findActivity(anchorView.getContext());
+        Window window = activity == null ? null : activity.getWindow();
+        if (window != mWindow) {
+            detach();
+            if (window != null) {
+                attach(window);
+            }
+        }
+        markPhase(PHASE_CREATE);
+    }
+
+    /**
+     * 弹窗彻底结束；所有弹窗都结束后延迟一会儿再摘掉监听
+     */
+    void stop() {
+        if (mActiveCount == 0) {
+            return;
+        }
+        if (--mActiveCount == 0) {
+            mHandler.postDelayed(mDetachRunnable, DETACH_DELAY_MS);
+        }
+    }
+
+    void markPhase(int phase) {
+        markPhase(phase, System.nanoTime());
+    }
+
+    void markPhase(int phase, long timeNanos) {
+        if (phase == mPhase) {
+            return;
+        }
+        mPhase = phase;
+        int index = (mMarkStart + mMarkCount) % MARK_CAPACITY;
+        if (mMarkCount == MARK_CAPACITY) {
+            mMarkStart = (mMarkStart + 1) % MARK_CAPACITY;
+        } else {
+            mMarkCount++;
+        }
+        mMarkTimes[index] = timeNanos;
+        mMarkPhases[index] = phase;
+    }
+
+    @RequiresApi(Build.VERSION_CODES.N)
+    private void attach(Window window) {
+        Display display = window.getWindowManager().getDefaultDisplay();
+        float refreshRate = display == null ? 0 : display.getRefreshRate();
+        mFrameBudgetNanos = refreshRate > 1 ? (long) (1_000_000_000L / refreshRate) : DEFAULT_FRAME_BUDGET_NANOS;
+        if (mFrameListener == null) {
+            mFrameListener = new FrameListener();
+        }
+        window.addOnFrameMetricsAvailableListener((FrameListener) mFrameListener, mHandler);
+        mWindow = window;
+    }
+
+    private void detach() {
+        if (mWindow == null) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            try {
+                mWindow.removeOnFrameMetricsAvailableListener((FrameListener) mFrameListener);
+            } catch (IllegalArgumentException e) {
+                // 窗口销毁时系统已经移除
+            }
+        }
+        // 不再持有Activity的窗口
+        mWindow = null;
+        mPhase = -1;
+        mMarkCount = 0;
+        if (mListener != null) {
+            mListener.onJankReport(this);
+        }
+    }
+
+    /**
+     * @param vsyncNanos 帧的vsync时间，未知时传-1，按当前阶段统计
+     */
+    void onFrame(long vsyncNanos, long totalNanos) {
+        int phase = vsyncNanos < 0 ? mPhase : resolvePhase(vsyncNanos, vsyncNanos + totalNanos);
+        if (phase < 0) {
+            // 开始统计之前的帧
+            return;
+        }
+        mHistograms[phase * BUCKET_COUNT + XPopMetricsAggregator.bucketIndex(totalNanos / 1000)]++;
+        mFrameCounts[phase]++;
+        if (totalNanos > mFrameBudgetNanos) {
+            mSlowCounts[phase]++;
+        }
+        if (totalNanos > FROZEN_FRAME_NANOS) {
+            mFrozenCounts[phase]++;
+        }
+        if (phase == PHASE_FIRST_DRAW && mPhase == PHASE_FIRST_DRAW) {
+            // 第一帧之后都算重定位
+            markPhase(PHASE_REPOSITION, vsyncNanos < 0 ? System.nanoTime() : vsyncNanos + totalNanos);
+        }
+    }
+
+    /**
+     * 帧执行期间有阶段切换时归到最早的那个（show()在哪一帧里执行，那一帧就是create），否则归到vsync之前最近的阶段
+     */
+    private int resolvePhase(long vsyncNanos, long endNanos) {
+        int phase = -1;
+        for (int i = 0; i < mMarkCount; i++) {
+            int index = (mMarkStart + i) % MARK_CAPACITY;
+            long time = mMarkTimes[index];
+            if (time > endNanos) {
+                break;
+            }
+            phase = mMarkPhases[index];
+            if (time >= vsyncNanos) {
+                break;
+            }
+        }
+        // 帧按顺序回调，vsync之前的切换点只需要保留最后一个
+        while (mMarkCount > 1 && mMarkTimes[(mMarkStart + 1) % MARK_CAPACITY] <= vsyncNanos) {
+            mMarkStart = (mMarkStart + 1) % MARK_CAPACITY;
+            mMarkCount--;
+        }
+        return phase;
+    }
+
+    public long getFrameCount(int phase) {
+        return mFrameCounts[phase];
+    }
+
+    // 超过一帧时长（按屏幕刷新率）的帧
+    public long getSlowFrameCount(int phase) {
+        return mSlowCounts[phase];
+    }
+
+    public long getFrozenFrameCount(int phase) {
+        return mFrozenCounts[phase];
+    }
+
+    // 主线程忙时系统丢弃的FrameMetrics回调个数，这些帧没有计入
+    public long getDroppedReportCount() {
+        return mDroppedReports;
+    }
+
+    /**
+     * @param percentile 0~100
+     * @return 帧耗时对应分位所在桶的上界，单位微秒
+     */
+    public long getFramePercentileMicros(int phase, double percentile) {
+        long total = mFrameCounts[phase];
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        int offset = phase * BUCKET_COUNT;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += mHistograms[offset + i];
+            if (seen >= target) {
+                return XPopMetricsAggregator.bucketUpperBound(i);
+            }
+        }
+        return XPopMetricsAggregator.bucketUpperBound(BUCKET_COUNT - 1);
+    }
+
+    public void reset() {
+        for (int i = 0; i < mHistograms.length; i++) {
+            mHistograms[i] = 0;
+        }
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            mFrameCounts[i] = 0;
+            mSlowCounts[i] = 0;
+            mFrozenCounts[i] = 0;
+        }
+        mDroppedReports = 0;
+    }
+
+    /**
+     * 输出可读的汇总，供调试页面展示
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            sb.append(String.format(Locale.US, "%-10s frames=%d slow=%d frozen=%d p50=%dus p90=%dus p99=%dus%n",
+                    PHASE_NAMES[phase], getFrameCount(phase), getSlowFrameCount(phase), getFrozenFrameCount(phase),
+                    getFramePercentileMicros(phase, 50), getFramePercentileMicros(phase, 90),
+                    getFramePercentileMicros(phase, 99)));
+        }
+        sb.append("dropped reports=").append(getDroppedReportCount());
+        return sb.toString();
+    }
+
+    private static Activity findActivity(Context context) {
+        while (context instanceof ContextWrapper) {
+            if (context instanceof Activity) {
+                return (Activity) context;
+            }
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        return null;
+    }
+
+    @RequiresApi(Build.VERSION_CODES.N)
+    private final class FrameListener implements Window.OnFrameMetricsAvailableListener {
+        @Override
+        public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+            if (window != mWindow) {
+                return;
+            }
+            mDroppedReports += dropCountSinceLastInvocation;
+            // INTENDED_VSYNC_TIMESTAMP从API 26开始才有
+            long vsync = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                    ? frameMetrics.getMetric(FrameMetrics.INTENDED_VSYNC_TIMESTAMP) : -1;
+            onFrame(vsync, frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION));
+        }
+    }
+}
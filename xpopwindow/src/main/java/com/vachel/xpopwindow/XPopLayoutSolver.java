@@ -0,0 +1,79 @@
+package com.vachel.xpopwindow;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Paint;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+/**
+ * 自动排版：按可用宽度和标签宽度选择列数和格子宽度，不inflate任何View
+ * 格子宽度能放下最长的标签（不小于popup_item_width），在放得下的前提下选行数最少、各行最均匀的列数
+ * 结果按标签、可用宽度和配置缓存
+ */
+final class XPopLayoutSolver {
+    private static final int CACHE_SIZE = 16;
+    // 用到时才创建，纯计算的方法不依赖Android类，可以在JVM单元测试里直接调用
+    private static LruCache<XPopCacheKey, int[]> sCache;
+    private static final XPopCacheKey sKey = new XPopCacheKey();
+    private static TextPaint sTextPaint;
+
+    private XPopLayoutSolver() {
+    }
+
+    /**
+     * @param labels         决定格子宽度的标签，分页时是全部页的标签
+     * @param itemCount      一页的格子数
+     * @param availableWidth 弹窗内容可用的最大宽度（已减去屏幕边距和padding）
+     * @return {列数, 格子宽度}
+     */
+    static int[] solve(Context context, String[] labels, int itemCount, int availableWidth, int dividerWidth) {
+        Resources res = context.getResources();
+        XPopCacheKey key = sKey.reset(labels, null).add(itemCount).add(availableWidth).add(dividerWidth)
+                .add(res.getDisplayMetrics().densityDpi).add(res.getConfiguration().fontScale);
+        if (sCache == null) {
+            sCache = new LruCache<>(CACHE_SIZE);
+        }
+        int[] result = sCache.get(key);
+        if (result != null) {
+            return result;
+        }
+        if (sTextPaint == null) {
+            sTextPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        }
+        sTextPaint.setTextSize(res.getDimensionPixelSize(R.dimen.popup_item_text_size));
+        float maxLabelWidth = 0;
+        for (String label : labels) {
+            maxLabelWidth = Math.max(maxLabelWidth, sTextPaint.measureText(label));
+        }
+        int cellWidth = computeCellWidth(res.getDimensionPixelSize(R.dimen.popup_item_width), maxLabelWidth,
+                res.getDimensionPixelSize(R.dimen.popup_item_text_padding_horizontal), availableWidth);
+        result = new int[]{computeSpanCount(itemCount, cellWidth, dividerWidth, availableWidth), cellWidth};
+        sCache.put(key.copy(), result);
+        return result;
+    }
+
+    /**
+     * 能放下最长标签的格子宽度，不小于minCellWidth，不超过可用宽度（超过时标签换行）
+     */
+    static int computeCellWidth(int minCellWidth, float maxLabelWidth, int textPadding, int availableWidth) {
+        int cellWidth = Math.max(minCellWidth, (int) Math.ceil(maxLabelWidth) + textPadding * 2);
+        return Math.max(1, Math.min(cellWidth, availableWidth));
+    }
+
+    /**
+     * 先算出一行最多放几个，得到最少行数，再把item均匀分到这些行里
+     * 宽度和XPopMeasurer.computeWidth一致：多列时每列带一条分割线宽度
+     */
+    static int computeSpanCount(int itemCount, int cellWidth, int dividerWidth, int availableWidth) {
+        if (itemCount <= 1) {
+            return 1;
+        }
+        int maxSpan = Math.max(1, availableWidth / (cellWidth + dividerWidth));
+        if (maxSpan >= itemCount) {
+            return itemCount;
+        }
+        int rowCount = (itemCount + maxSpan - 1) / maxSpan;
+        return (itemCount + rowCount - 1) / rowCount;
+    }
+}
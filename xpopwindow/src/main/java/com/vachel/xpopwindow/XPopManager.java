@@ -0,0 +1,82 @@
+package com.vachel.xpopwindow;
+
+import android.os.IBinder;
+import android.view.View;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 按窗口管理弹窗，同一个窗口同时只显示一个；不同Activity、分屏的不同窗口互不影响
+ * 只弱引用当前弹窗，漏掉onDismiss也不会让之后的show一直失败
+ */
+public final class XPopManager {
+    // key是窗口的token，窗口销毁后整个条目随之回收
+    private static final Map<IBinder, XPopManager> sManagers = new WeakHashMap<>();
+
+    private WeakReference<XPopWindow> mActive;
+
+    private XPopManager() {
+    }
+
+    /**
+     * @return view所在窗口的管理器；view还没有attach到窗口时返回null
+     */
+    public static XPopManager of(View view) {
+        IBinder token = view.getWindowToken();
+        if (token == null) {
+            return null;
+        }
+        XPopManager manager = sManagers.get(token);
+        if (manager == null) {
+            manager = new XPopManager();
+            sManagers.put(token, manager);
+        }
+        return manager;
+    }
+
+    /**
+     * 当前窗口中显示中（或因滚动暂时隐藏）的弹窗
+     */
+    public XPopWindow getActive() {
+        return mActive == null ? null : mActive.get();
+    }
+
+    public void dismissActive() {
+        XPopWindow active = getActive();
+        if (active != null) {
+            active.dismiss();
+        }
+    }
+
+    /**
+     * popup准备显示；已有其他弹窗时按replaceOnShow决定替换还是放弃
+     *
+     * @return false表示不显示popup
+     */
+    boolean requestShow(XPopWindow popup, boolean replaceOnShow) {
+        XPopWindow active = getActive();
+        if (active == null || active == popup) {
+            return true;
+        }
+        if (active.isShowing() && !replaceOnShow) {
+            return false;
+        }
+        // 替换：旧弹窗马上消失，布局交给新弹窗复用
+        popup.adoptReplacedEntry(active.releaseForReplace());
+        return true;
+    }
+
+    void onShown(XPopWindow popup) {
+        if (getActive() != popup) {
+            mActive = new WeakReference<>(popup);
+        }
+    }
+
+    void onFinished(XPopWindow popup) {
+        if (getActive() == popup) {
+            mActive = null;
+        }
+    }
+}
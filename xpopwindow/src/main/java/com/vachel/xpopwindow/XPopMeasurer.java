@@ -0,0 +1,86 @@
+package com.vachel.xpopwindow;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Paint;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+/**
+ * 弹窗尺寸计算；默认item布局时按span、item尺寸、padding和分割线直接算出宽高，不走measure
+ * 标签一行放不下等算不准的情况返回null，由调用方真实测量一次
+ */
+final class XPopMeasurer {
+    private static final int CACHE_SIZE = 16;
+    // 第一次measure时才创建，computeWidth等纯计算方法在没有Android环境的单元测试里也能调用
+    private static LruCache<XPopCacheKey, int[]> sCache;
+    // 查找用的key，measure只在主线程调用
+    private static final XPopCacheKey sKey = new XPopCacheKey();
+    private static TextPaint sTextPaint;
+
+    private XPopMeasurer() {
+    }
+
+    /**
+     * @return {列表区域宽, 列表区域高}，不含指示器；null表示需要真实测量
+     */
+    static int[] measure(Context context, String[] labels, boolean hasIcons, int spanCount, int cellWidth,
+                         int dividerWidth, int dividerHeight,
+                         int paddingLeft, int paddingTop, int paddingRight, int paddingBottom) {
+        Resources res = context.getResources();
+        XPopCacheKey key = sKey.reset(labels, null).add(hasIcons).add(spanCount).add(cellWidth)
+                .add(dividerWidth).add(dividerHeight).add(paddingLeft).add(paddingTop).add(paddingRight).add(paddingBottom)
+                .add(res.getDisplayMetrics().densityDpi).add(res.getConfiguration().fontScale);
+        if (sCache == null) {
+            sCache = new LruCache<>(CACHE_SIZE);
+        }
+        int[] size = sCache.get(key);
+        if (size != null) {
+            return size;
+        }
+        if (sTextPaint == null) {
+            sTextPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        }
+        sTextPaint.setTextSize(res.getDimensionPixelSize(R.dimen.popup_item_text_size));
+        for (String label : labels) {
+            if (label == null || label.indexOf('\n') >= 0 || sTextPaint.measureText(label) > cellWidth) {
+                // 标签会换行，算不准
+                return null;
+            }
+        }
+        Paint.FontMetricsInt fm = sTextPaint.getFontMetricsInt();
+        int cellHeight = computeCellHeight(res.getDimensionPixelSize(R.dimen.popup_item_padding_vertical),
+                hasIcons ? res.getDimensionPixelSize(R.dimen.popup_item_icon_size) : 0,
+                res.getDimensionPixelSize(R.dimen.popup_item_text_margin_top),
+                fm.bottom - fm.top);
+        int rowCount = (labels.length + spanCount - 1) / spanCount;
+        size = new int[]{
+                computeWidth(spanCount, cellWidth, dividerWidth, paddingLeft, paddingRight),
+                computeHeight(rowCount, cellHeight, dividerHeight, paddingTop, paddingBottom)
+        };
+        sCache.put(key.copy(), size);
+        return size;
+    }
+
+    /**
+     * 和popup_window_item.xml结构一致：上下padding + 图标 + 文字上边距 + 单行文字高度
+     */
+    static int computeCellHeight(int paddingVertical, int iconSize, int textMarginTop, int textHeight) {
+        return paddingVertical * 2 + iconSize + textMarginTop + textHeight;
+    }
+
+    /**
+     * GridLayoutManager按最宽的item（含分割线偏移）均分每列
+     */
+    static int computeWidth(int spanCount, int cellWidth, int dividerWidth, int paddingLeft, int paddingRight) {
+        int columnWidth = cellWidth + (spanCount > 1 ? dividerWidth : 0);
+        return columnWidth * spanCount + paddingLeft + paddingRight;
+    }
+
+    /**
+     * 除最后一行外每行底部有一条分割线
+     */
+    static int computeHeight(int rowCount, int cellHeight, int dividerHeight, int paddingTop, int paddingBottom) {
+        return cellHeight * rowCount + dividerHeight * Math.max(rowCount - 1, 0) + paddingTop + paddingBottom;
+    }
+}
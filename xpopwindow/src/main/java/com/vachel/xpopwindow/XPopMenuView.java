@@ -0,0 +1,412 @@
+package com.vachel.xpopwindow;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Bundle;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.view.MotionEvent;
+import android.view.SoundEffectConstants;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import androidx.core.view.ViewCompat;
+import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
+import androidx.customview.widget.ExploreByTouchHelper;
+
+import java.util.List;
+
+/**
+ * 扁平模式的弹窗菜单，单个View自己排版图标和文字、绘制分割线和按压态，并处理点击和无障碍
+ * 尺寸和popup_window_item.xml一致，一次measure一次draw
+ */
+public class XPopMenuView extends View {
+    private static final int DISABLED_ALPHA = 0x61;
+
+    private final XPopStyle mStyle;
+    private final TextPaint mTextPaint;
+    private final Paint mPressedPaint = new Paint();
+    private final Rect mCellRect = new Rect();
+    private final MenuAccessibilityHelper mAccessibilityHelper;
+    private int mCellWidth;
+    private final int mCellPaddingVertical;
+    private final int mIconSize;
+    private final int mTextMarginTop;
+
+    private String[] mLabels;
+    private int[] mIcons;
+    private int mIconTint;
+    private Drawable[] mIconDrawables;
+    private boolean[] mEnabled;
+    private StaticLayout[] mTextLayouts;
+    private int mSpanCount = 1;
+    private int mRowCount;
+    private int mCellHeight;
+    private Drawable mRowDivider;
+    private Drawable mColumnDivider;
+    private int mPressedIndex = -1;
+    private OnItemClickListener mOnItemClickListener;
+
+    public XPopMenuView(Context context, XPopStyle style) {
+        super(context);
+        mStyle = style;
+        Resources res = context.getResources();
+        mCellWidth = res.getDimensionPixelSize(R.dimen.popup_item_width);
+        mCellPaddingVertical = res.getDimensionPixelSize(R.dimen.popup_item_padding_vertical);
+        mIconSize = res.getDimensionPixelSize(R.dimen.popup_item_icon_size);
+        mTextMarginTop = res.getDimensionPixelSize(R.dimen.popup_item_text_margin_top);
+        mTextPaint = newTextPaint(res);
+        mPressedPaint.setColor(style.pressedBackgroundColor);
+        mAccessibilityHelper = new MenuAccessibilityHelper(this);
+        ViewCompat.setAccessibilityDelegate(this, mAccessibilityHelper);
+    }
+
+    public void setOnItemClickListener(OnItemClickListener listener) {
+        mOnItemClickListener = listener;
+    }
+
+    /**
+     * @param rowDivider    行之间的分割线（横线），可为null
+     * @param columnDivider 列之间的分割线（竖线），可为null
+     */
+    public void setDividers(@Nullable Drawable rowDivider, @Nullable Drawable columnDivider) {
+        mRowDivider = rowDivider;
+        mColumnDivider = columnDivider;
+        requestLayout();
+    }
+
+    /**
+     * 格子宽度，默认popup_item_width；自动排版时由XPopWindow指定
+     */
+    public void setCellWidth(int cellWidth) {
+        if (mCellWidth == cellWidth) {
+            return;
+        }
+        mCellWidth = cellWidth;
+        if (mLabels != null) {
+            // 排版宽度变了，已有的StaticLayout都不能再用
+            for (int i = 0; i < mLabels.length; i++) {
+                mTextLayouts[i] = createTextLayout(mLabels[i]);
+            }
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    public void setItems(String[] labels, int[] icons, int spanCount) {
+        setItems(labels, icons, 0, spanCount);
+    }
+
+    /**
+     * 绑定数据；标签没变的item复用已有的StaticLayout，图标从XPopIconCache取
+     *
+     * @param iconTint 图标着色，0表示不着色
+     */
+    public void setItems(String[] labels, int[] icons, int iconTint, int spanCount) {
+        setItems(labels, null, icons, iconTint, spanCount);
+    }
+
+    /**
+     * @param texts 和labels一一对应的后台预排版结果（见XPopPreparer），null表示直接用labels排版
+     */
+    void setItems(String[] labels, @Nullable CharSequence[] texts, int[] icons, int iconTint, int spanCount) {
+        if (icons != null && icons.length != labels.length) {
+            icons = null;
+        }
+        StaticLayout[] textLayouts = new StaticLayout[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            if (mLabels != null && i < mLabels.length && labels[i].equals(mLabels[i])) {
+                textLayouts[i] = mTextLayouts[i];
+            } else {
+                textLayouts[i] = createTextLayout(texts != null ? texts[i] : labels[i]);
+            }
+        }
+        Drawable[] iconDrawables = null;
+        if (icons != null) {
+            iconDrawables = new Drawable[icons.length];
+            for (int i = 0; i < icons.length; i++) {
+                if (mIcons != null && i < mIcons.length && mIcons[i] == icons[i] && mIconTint == iconTint) {
+                    iconDrawables[i] = mIconDrawables[i];
+                } else {
+                    iconDrawables[i] = getIconDrawable(icons[i], iconTint);
+                }
+            }
+        }
+        mLabels = labels;
+        mIcons = icons;
+        mIconTint = iconTint;
+        mTextLayouts = textLayouts;
+        mIconDrawables = iconDrawables;
+        mSpanCount = Math.max(1, Math.min(spanCount, labels.length));
+        mRowCount = (labels.length + mSpanCount - 1) / mSpanCount;
+        mPressedIndex = -1;
+        mAccessibilityHelper.invalidateRoot();
+        requestLayout();
+        invalidate();
+    }
+
+    private Drawable getIconDrawable(int resId, int tint) {
+        if (resId == 0) {
+            return null;
+        }
+        Bitmap bitmap = XPopIconCache.getInstance(getContext()).get(getContext(), resId, tint, mIconSize);
+        if (bitmap == null) {
+            // onDraw会给不可用的item设置透明度，mutate后才不会影响其他地方共用的同一个图标
+            Drawable drawable = ContextCompat.getDrawable(getContext(), resId);
+            return drawable == null ? null : drawable.mutate();
+        }
+        return new BitmapDrawable(getResources(), bitmap);
+    }
+
+    /**
+     * 各项是否可用，不可用的置灰且不响应点击；null表示全部可用
+     */
+    public void setItemsEnabled(@Nullable boolean[] enabled) {
+        mEnabled = enabled;
+        mAccessibilityHelper.invalidateRoot();
+        invalidate();
+    }
+
+    public boolean isItemEnabled(int index) {
+        return mEnabled == null || index < 0 || index >= mEnabled.length || mEnabled[index];
+    }
+
+    public int getItemCount() {
+        return mLabels == null ? 0 : mLabels.length;
+    }
+
+    public boolean hasIcons() {
+        return mIcons != null;
+    }
+
+    /**
+     * 文字画笔；XPopPreparer用同样的画笔在后台预排版，参数一致时StaticLayout才能直接使用结果
+     */
+    static TextPaint newTextPaint(Resources res) {
+        TextPaint paint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        paint.setTextSize(res.getDimensionPixelSize(R.dimen.popup_item_text_size));
+        return paint;
+    }
+
+    @SuppressWarnings("deprecation")
+    private StaticLayout createTextLayout(CharSequence label) {
+        return new StaticLayout(label, mTextPaint, mCellWidth, Layout.Alignment.ALIGN_CENTER, 1f, 0f, true);
+    }
+
+    private int getRowDividerHeight() {
+        return mRowDivider == null ? 0 : mRowDivider.getIntrinsicHeight();
+    }
+
+    private int getColumnDividerWidth() {
+        return mColumnDivider == null || mSpanCount < 2 ? 0 : mColumnDivider.getIntrinsicWidth();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int textHeight = 0;
+        if (mTextLayouts != null) {
+            for (StaticLayout layout : mTextLayouts) {
+                textHeight = Math.max(textHeight, layout.getHeight());
+            }
+        }
+        mCellHeight = XPopMeasurer.computeCellHeight(mCellPaddingVertical, hasIcons() ? mIconSize : 0, mTextMarginTop, textHeight);
+        int width = XPopMeasurer.computeWidth(mSpanCount, mCellWidth, getColumnDividerWidth(), getPaddingLeft(), getPaddingRight());
+        int height = XPopMeasurer.computeHeight(mRowCount, mCellHeight, getRowDividerHeight(), getPaddingTop(), getPaddingBottom());
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+    }
+
+    /**
+     * 计算第index个item的区域（不含分割线）
+     */
+    private void getCellRect(int index, Rect outRect) {
+        int row = index / mSpanCount;
+        int column = index % mSpanCount;
+        int left = getPaddingLeft() + column * (mCellWidth + getColumnDividerWidth());
+        int top = getPaddingTop() + row * (mCellHeight + getRowDividerHeight());
+        outRect.set(left, top, left + mCellWidth, top + mCellHeight);
+    }
+
+    private int findCellIndex(float x, float y) {
+        int column = (int) ((x - getPaddingLeft()) / (mCellWidth + getColumnDividerWidth()));
+        int row = (int) ((y - getPaddingTop()) / (mCellHeight + getRowDividerHeight()));
+        if (x < getPaddingLeft() || y < getPaddingTop() || column >= mSpanCount || row >= mRowCount) {
+            return -1;
+        }
+        int index = row * mSpanCount + column;
+        return index < getItemCount() ? index : -1;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        int count = getItemCount();
+        for (int i = 0; i < count; i++) {
+            getCellRect(i, mCellRect);
+            boolean pressed = i == mPressedIndex;
+            if (pressed) {
+                canvas.drawRect(mCellRect, mPressedPaint);
+            }
+            int alpha = isItemEnabled(i) ? 0xFF : DISABLED_ALPHA;
+            int contentTop = mCellRect.top + mCellPaddingVertical;
+            if (mIconDrawables != null) {
+                Drawable icon = mIconDrawables[i];
+                if (icon != null) {
+                    int iconLeft = mCellRect.left + (mCellWidth - mIconSize) / 2;
+                    icon.setBounds(iconLeft, contentTop, iconLeft + mIconSize, contentTop + mIconSize);
+                    icon.setAlpha(alpha);
+                    icon.draw(canvas);
+                }
+                contentTop += mIconSize;
+            }
+            contentTop += mTextMarginTop;
+            int textColor = pressed ? mStyle.pressedTextColor : mStyle.normalTextColor;
+            mTextPaint.setColor(textColor);
+            mTextPaint.setAlpha(Color.alpha(textColor) * alpha / 0xFF);
+            canvas.save();
+            canvas.translate(mCellRect.left, contentTop);
+            mTextLayouts[i].draw(canvas);
+            canvas.restore();
+        }
+        drawDividers(canvas);
+    }
+
+    private void drawDividers(Canvas canvas) {
+        int left = getPaddingLeft();
+        int top = getPaddingTop();
+        int right = getWidth() - getPaddingRight();
+        int bottom = getHeight() - getPaddingBottom();
+        if (mRowDivider != null) {
+            int dividerHeight = getRowDividerHeight();
+            for (int row = 0; row < mRowCount - 1; row++) {
+                int lineTop = top + (row + 1) * mCellHeight + row * dividerHeight;
+                mRowDivider.setBounds(left, lineTop, right, lineTop + dividerHeight);
+                mRowDivider.draw(canvas);
+            }
+        }
+        if (mColumnDivider != null) {
+            int dividerWidth = getColumnDividerWidth();
+            for (int column = 0; column < mSpanCount - 1; column++) {
+                int lineLeft = left + (column + 1) * mCellWidth + column * dividerWidth;
+                mColumnDivider.setBounds(lineLeft, top, lineLeft + dividerWidth, bottom);
+                mColumnDivider.draw(canvas);
+            }
+        }
+    }
+
+    @SuppressLint("ClickableViewAccessibility")
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                int downIndex = findCellIndex(event.getX(), event.getY());
+                setPressedIndex(isItemEnabled(downIndex) ? downIndex : -1);
+                return mPressedIndex != -1;
+            case MotionEvent.ACTION_MOVE:
+                if (mPressedIndex != -1 && findCellIndex(event.getX(), event.getY()) != mPressedIndex) {
+                    setPressedIndex(-1);
+                }
+                return true;
+            case MotionEvent.ACTION_UP:
+                int index = mPressedIndex;
+                setPressedIndex(-1);
+                if (index != -1) {
+                    performItemClick(index);
+                }
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                setPressedIndex(-1);
+                return true;
+            default:
+                return super.onTouchEvent(event);
+        }
+    }
+
+    private void setPressedIndex(int index) {
+        if (mPressedIndex != index) {
+            mPressedIndex = index;
+            invalidate();
+        }
+    }
+
+    boolean performItemClick(int index) {
+        if (index < 0 || index >= getItemCount() || !isItemEnabled(index)) {
+            return false;
+        }
+        playSoundEffect(SoundEffectConstants.CLICK);
+        mAccessibilityHelper.sendEventForVirtualView(index, AccessibilityEvent.TYPE_VIEW_CLICKED);
+        if (mOnItemClickListener != null) {
+            mOnItemClickListener.onItemClick(this, index);
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        return mAccessibilityHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
+
+    /**
+     * 点击回调
+     */
+    public interface OnItemClickListener {
+        void onItemClick(View view, int index);
+    }
+
+    /**
+     * 每个item作为一个虚拟View暴露给无障碍服务
+     */
+    private class MenuAccessibilityHelper extends ExploreByTouchHelper {
+        private final Rect mTempRect = new Rect();
+
+        MenuAccessibilityHelper(View host) {
+            super(host);
+        }
+
+        @Override
+        protected int getVirtualViewAt(float x, float y) {
+            int index = findCellIndex(x, y);
+            return index == -1 ? HOST_ID : index;
+        }
+
+        @Override
+        protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+            int count = getItemCount();
+            for (int i = 0; i < count; i++) {
+                virtualViewIds.add(i);
+            }
+        }
+
+        @Override
+        protected void onPopulateNodeForVirtualView(int virtualViewId, @NonNull AccessibilityNodeInfoCompat node) {
+            node.setText(virtualViewId < getItemCount() ? mLabels[virtualViewId] : "");
+            node.setClickable(true);
+            node.setEnabled(isItemEnabled(virtualViewId));
+            node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+            if (virtualViewId < getItemCount()) {
+                getCellRect(virtualViewId, mTempRect);
+            } else {
+                mTempRect.set(0, 0, 1, 1);
+            }
+            node.setBoundsInParent(mTempRect);
+        }
+
+        @Override
+        protected boolean onPerformActionForVirtualView(int virtualViewId, int action, @Nullable Bundle arguments) {
+            if (action == AccessibilityNodeInfoCompat.ACTION_CLICK) {
+                return performItemClick(virtualViewId);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.vachel.xpopwindow;
+
+/**
+ * XPopWindow的耗时和事件上报；默认不上报，XPopWindow连计时都不会做
+ * 用法参照      XPopWindow.setDefaultMetrics(new XPopMetricsAggregator());
+ * 所有回调都在主线程
+ */
+public interface XPopMetrics {
+    int PHASE_INIT_PARAMETERS = 0;
+    int PHASE_CREATE_POPUP_WINDOW = 1;
+    // 包含在PHASE_CREATE_POPUP_WINDOW里
+    int PHASE_MEASURE = 2;
+    // 从show()开始到showAtLocation返回
+    int PHASE_SHOW = 3;
+    int PHASE_COUNT = 4;
+
+    // 点击了item
+    int DISMISS_CLICK = 0;
+    // 点击弹窗外部或返回键
+    int DISMISS_OUTSIDE = 1;
+    // 生命周期onStop
+    int DISMISS_STOP = 2;
+    // 绑定的列表滚动
+    int DISMISS_SCROLL = 3;
+    // 调用方主动dismiss
+    int DISMISS_API = 4;
+    // 同一窗口显示新弹窗时被替换
+    int DISMISS_REPLACE = 5;
+    int DISMISS_REASON_COUNT = 6;
+
+    /**
+     * 不上报；设置它和不设置一样，没有任何开销
+     */
+    XPopMetrics NONE = new XPopMetrics() {
+        @Override
+        public void onPhase(int phase, long durationNanos) {
+        }
+
+        @Override
+        public void onPoolLookup(boolean hit) {
+        }
+
+        @Override
+        public void onScrollDismiss() {
+        }
+
+        @Override
+        public void onScrollReshow() {
+        }
+
+        @Override
+        public void onDismiss(int reason) {
+        }
+    };
+
+    void onPhase(int phase, long durationNanos);
+
+    // 设置了复用池时，每次创建弹窗都会上报是否命中
+    void onPoolLookup(boolean hit);
+
+    void onScrollDismiss();
+
+    void onScrollReshow();
+
+    void onDismiss(int reason);
+}
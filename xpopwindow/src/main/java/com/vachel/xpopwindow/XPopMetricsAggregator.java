@@ -0,0 +1,167 @@
+package com.vachel.xpopwindow;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 内置的汇总实现：计数和耗时直方图都是无锁的，可以在调试页面随时dump
+ * 耗时按微秒分桶，每个2的幂区间再等分16份，相对误差在6%以内
+ */
+public class XPopMetricsAggregator implements XPopMetrics {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // 最大记录到2^31微秒，更大的计入最后一个桶
+    private static final int MAX_EXPONENT = 31;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+    private static final String[] PHASE_NAMES = {"initParameters", "createPopupWindow", "measure", "show"};
+    private static final String[] DISMISS_NAMES = {"click", "outside", "stop", "scroll", "api", "replace"};
+
+    private final AtomicLongArray mHistograms = new AtomicLongArray(PHASE_COUNT * BUCKET_COUNT);
+    private final AtomicLongArray mPhaseCounts = new AtomicLongArray(PHASE_COUNT);
+    private final AtomicLongArray mPhaseTotalMicros = new AtomicLongArray(PHASE_COUNT);
+    private final AtomicLongArray mDismissCounts = new AtomicLongArray(DISMISS_REASON_COUNT);
+    // 0:命中 1:未命中 2:滚动消失 3:滚动后重新显示
+    private final AtomicLongArray mCounters = new AtomicLongArray(4);
+
+    @Override
+    public void onPhase(int phase, long durationNanos) {
+        long micros = Math.max(0, durationNanos / 1000);
+        mHistograms.incrementAndGet(phase * BUCKET_COUNT + bucketIndex(micros));
+        mPhaseCounts.incrementAndGet(phase);
+        mPhaseTotalMicros.addAndGet(phase, micros);
+    }
+
+    @Override
+    public void onPoolLookup(boolean hit) {
+        mCounters.incrementAndGet(hit ? 0 : 1);
+    }
+
+    @Override
+    public void onScrollDismiss() {
+        mCounters.incrementAndGet(2);
+    }
+
+    @Override
+    public void onScrollReshow() {
+        mCounters.incrementAndGet(3);
+    }
+
+    @Override
+    public void onDismiss(int reason) {
+        mDismissCounts.incrementAndGet(reason);
+    }
+
+    public long getPhaseCount(int phase) {
+        return mPhaseCounts.get(phase);
+    }
+
+    public long getPhaseMeanMicros(int phase) {
+        long count = mPhaseCounts.get(phase);
+        return count == 0 ? 0 : mPhaseTotalMicros.get(phase) / count;
+    }
+
+    /**
+     * @param percentile 0~100
+     * @return 对应分位所在桶的上界，单位微秒
+     */
+    public long getPhasePercentileMicros(int phase, double percentile) {
+        long total = 0;
+        int offset = phase * BUCKET_COUNT;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += mHistograms.get(offset + i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += mHistograms.get(offset + i);
+            if (seen >= target) {
+                return bucketUpperBound(i);
+            }
+        }
+        return bucketUpperBound(BUCKET_COUNT - 1);
+    }
+
+    public long getPoolHitCount() {
+        return mCounters.get(0);
+    }
+
+    public long getPoolMissCount() {
+        return mCounters.get(1);
+    }
+
+    public long getScrollDismissCount() {
+        return mCounters.get(2);
+    }
+
+    public long getScrollReshowCount() {
+        return mCounters.get(3);
+    }
+
+    public long getDismissCount(int reason) {
+        return mDismissCounts.get(reason);
+    }
+
+    public void reset() {
+        for (int i = 0; i < mHistograms.length(); i++) {
+            mHistograms.set(i, 0);
+        }
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            mPhaseCounts.set(i, 0);
+            mPhaseTotalMicros.set(i, 0);
+        }
+        for (int i = 0; i < DISMISS_REASON_COUNT; i++) {
+            mDismissCounts.set(i, 0);
+        }
+        for (int i = 0; i < mCounters.length(); i++) {
+            mCounters.set(i, 0);
+        }
+    }
+
+    /**
+     * 输出可读的汇总，供调试页面展示
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            sb.append(String.format(Locale.US, "%-18s n=%d mean=%dus p50=%dus p90=%dus p99=%dus%n",
+                    PHASE_NAMES[phase], getPhaseCount(phase), getPhaseMeanMicros(phase),
+                    getPhasePercentileMicros(phase, 50), getPhasePercentileMicros(phase, 90),
+                    getPhasePercentileMicros(phase, 99)));
+        }
+        sb.append(String.format(Locale.US, "pool hit=%d miss=%d%n", getPoolHitCount(), getPoolMissCount()));
+        sb.append(String.format(Locale.US, "scroll dismiss=%d reshow=%d%n", getScrollDismissCount(), getScrollReshowCount()));
+        sb.append("dismiss");
+        for (int reason = 0; reason < DISMISS_REASON_COUNT; reason++) {
+            sb.append(' ').append(DISMISS_NAMES[reason]).append('=').append(getDismissCount(reason));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 小于16的值每个一桶；之后每个2的幂区间分16个桶
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+}
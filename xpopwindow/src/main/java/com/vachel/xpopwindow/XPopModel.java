@@ -0,0 +1,39 @@
+package com.vachel.xpopwindow;
+
+import android.graphics.Bitmap;
+
+import androidx.core.text.PrecomputedTextCompat;
+
+import java.util.Arrays;
+
+/**
+ * 后台准备好的弹窗数据：按item尺寸解码好的图标和预先排版的标签
+ */
+final class XPopModel {
+    final String[] labels;
+    final int[] icons;
+    final int iconTint;
+    // 和labels一一对应，没有图标或个数不对应时为null
+    final Bitmap[] iconBitmaps;
+    // 网格item的TextView用，扁平模式时为null
+    final PrecomputedTextCompat[] texts;
+    // 扁平模式的XPopMenuView用，网格时为null
+    final CharSequence[] menuTexts;
+
+    XPopModel(String[] labels, int[] icons, int iconTint, Bitmap[] iconBitmaps, PrecomputedTextCompat[] texts,
+              CharSequence[] menuTexts) {
+        this.labels = labels;
+        this.icons = icons;
+        this.iconTint = iconTint;
+        this.iconBitmaps = iconBitmaps;
+        this.texts = texts;
+        this.menuTexts = menuTexts;
+    }
+
+    /**
+     * 按内容比较：分页模式每次resolvePage都会生成新的数组
+     */
+    boolean matches(String[] labels, int[] icons, int iconTint) {
+        return this.iconTint == iconTint && Arrays.equals(this.labels, labels) && Arrays.equals(this.icons, icons);
+    }
+}
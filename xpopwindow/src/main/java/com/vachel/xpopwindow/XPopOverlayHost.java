@@ -0,0 +1,233 @@
+package com.vachel.xpopwindow;
+
+import android.content.Context;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.PopupWindow;
+
+import androidx.core.view.ViewCompat;
+
+/**
+ * 覆盖层宿主：把气泡加到Activity的DecorView里，用translation定位
+ * 显示和消失都不经过WindowManagerService，也不创建新的Surface；和PopupWindow一样，点击气泡外部或返回键会消失
+ * 气泡必须完整落在Activity窗口内，超出时由XPopWindow改用AnimatedPopupWindow
+ */
+final class XPopOverlayHost implements XPopHost {
+    private final View mContentView;
+    private final BubbleAnimator mAnimator = new BubbleAnimator();
+    private final int[] mDecorLocation = new int[2];
+    private OverlayLayout mOverlay;
+    private PopupWindow.OnDismissListener mOnDismissListener;
+    private int mWidth;
+    private int mHeight;
+
+    private final Runnable mDismissRunnable = new Runnable() {
+        @Override
+        public void run() {
+            dismissImmediately();
+        }
+    };
+
+    XPopOverlayHost(View contentView) {
+        mContentView = contentView;
+    }
+
+    /**
+     * anchorView所在窗口的DecorView能否完整容纳气泡
+     */
+    boolean canHost(View anchorView, int x, int y, int width, int height) {
+        View root = anchorView.getRootView();
+        if (!(root instanceof FrameLayout) || root.getWindowToken() == null) {
+            return false;
+        }
+        root.getLocationOnScreen(mDecorLocation);
+        return x >= mDecorLocation[0] && y >= mDecorLocation[1]
+                && x + width <= mDecorLocation[0] + root.getWidth()
+                && y + height <= mDecorLocation[1] + root.getHeight();
+    }
+
+    @Override
+    public void setAnimation(int animation) {
+        mAnimator.setAnimation(animation);
+    }
+
+    @Override
+    public void setWidth(int width) {
+        mWidth = width;
+    }
+
+    @Override
+    public void setHeight(int height) {
+        mHeight = height;
+    }
+
+    @Override
+    public void setOnDismissListener(PopupWindow.OnDismissListener listener) {
+        mOnDismissListener = listener;
+    }
+
+    @Override
+    public void showAtLocation(View parent, int gravity, int x, int y) {
+        if (isShowing()) {
+            return;
+        }
+        if (mContentView.getParent() instanceof ViewGroup) {
+            // 之前由PopupWindow显示过
+            ((ViewGroup) mContentView.getParent()).removeView(mContentView);
+        }
+        OverlayLayout overlay = OverlayLayout.obtain((FrameLayout) parent.getRootView());
+        overlay.addView(mContentView, new FrameLayout.LayoutParams(mWidth, mHeight));
+        overlay.show(this);
+        mOverlay = overlay;
+        moveTo(x, y);
+    }
+
+    @Override
+    public void animateIn(float pivotX, float pivotY) {
+        mAnimator.animateIn(mContentView, pivotX, pivotY);
+    }
+
+    @Override
+    public void update(int x, int y, int width, int height) {
+        if (!isShowing()) {
+            return;
+        }
+        if (width != mWidth || height != mHeight) {
+            mWidth = width;
+            mHeight = height;
+            ViewGroup.LayoutParams layoutParams = mContentView.getLayoutParams();
+            layoutParams.width = width;
+            layoutParams.height = height;
+            mContentView.setLayoutParams(layoutParams);
+        }
+        moveTo(x, y);
+    }
+
+    // 只改translation，滚动跟随时不触发布局
+    private void moveTo(int x, int y) {
+        mOverlay.getLocationOnScreen(mDecorLocation);
+        mContentView.setTranslationX(x - mDecorLocation[0]);
+        mContentView.setTranslationY(y - mDecorLocation[1]);
+    }
+
+    @Override
+    public void setPivot(float pivotX, float pivotY) {
+        mAnimator.setPivot(mContentView, pivotX, pivotY);
+    }
+
+    @Override
+    public void finishAnimation() {
+        mAnimator.finish(mContentView);
+    }
+
+    @Override
+    public boolean isSpring() {
+        return mAnimator.isSpring();
+    }
+
+    @Override
+    public boolean isShowing() {
+        return mOverlay != null;
+    }
+
+    @Override
+    public void dismiss() {
+        if (!isShowing() || mAnimator.isDismissing()) {
+            return;
+        }
+        if (!mAnimator.animateOut(mContentView, mDismissRunnable)) {
+            dismissImmediately();
+        }
+    }
+
+    @Override
+    public void dismissImmediately() {
+        if (!isShowing()) {
+            return;
+        }
+        mAnimator.reset(mContentView);
+        mOverlay.removeView(mContentView);
+        mOverlay.hide();
+        mOverlay = null;
+        // 布局可能接着交给PopupWindow显示
+        mContentView.setTranslationX(0);
+        mContentView.setTranslationY(0);
+        if (mOnDismissListener != null) {
+            mOnDismissListener.onDismiss();
+        }
+    }
+
+    boolean contains(float x, float y) {
+        float left = mContentView.getLeft() + mContentView.getTranslationX();
+        float top = mContentView.getTop() + mContentView.getTranslationY();
+        return x >= left && x < left + mWidth && y >= top && y < top + mHeight;
+    }
+
+    /**
+     * 铺满DecorView的透明层，每个窗口一个，没有气泡时GONE，不拦截任何事件
+     * 不拿焦点，聊天输入框等View的焦点和键盘不受影响；返回键在焦点View没有处理时收起气泡
+     * 返回键经过unhandled key事件分发，在Activity.onBackPressed之前；API 28以下需要androidx的Activity转发
+     */
+    static final class OverlayLayout extends FrameLayout {
+        private XPopOverlayHost mHost;
+
+        static OverlayLayout obtain(FrameLayout decor) {
+            for (int i = decor.getChildCount() - 1; i >= 0; i--) {
+                View child = decor.getChildAt(i);
+                if (child instanceof OverlayLayout) {
+                    return (OverlayLayout) child;
+                }
+            }
+            OverlayLayout overlay = new OverlayLayout(decor.getContext());
+            decor.addView(overlay, new FrameLayout.LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT));
+            return overlay;
+        }
+
+        OverlayLayout(Context context) {
+            super(context);
+            setVisibility(GONE);
+            ViewCompat.addOnUnhandledKeyEventListener(this, new ViewCompat.OnUnhandledKeyEventListenerCompat() {
+                @Override
+                public boolean onUnhandledKeyEvent(View v, KeyEvent event) {
+                    if (mHost == null || event.getKeyCode() != KeyEvent.KEYCODE_BACK) {
+                        return false;
+                    }
+                    if (event.getAction() == KeyEvent.ACTION_UP && !event.isCanceled()) {
+                        mHost.dismiss();
+                    }
+                    return true;
+                }
+            });
+        }
+
+        void show(XPopOverlayHost host) {
+            mHost = host;
+            setVisibility(VISIBLE);
+            // 保证在content之上
+            bringToFront();
+        }
+
+        void hide() {
+            mHost = null;
+            setVisibility(GONE);
+        }
+
+        @Override
+        public boolean dispatchTouchEvent(MotionEvent ev) {
+            if (mHost == null) {
+                // 消失后同一手势剩下的事件
+                return true;
+            }
+            if (ev.getActionMasked() == MotionEvent.ACTION_DOWN && !mHost.contains(ev.getX(), ev.getY())) {
+                // 和PopupWindow一样，点击外部只收起弹窗，事件不再传给下面的View
+                mHost.dismiss();
+                return true;
+            }
+            super.dispatchTouchEvent(ev);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.vachel.xpopwindow;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Layout;
+import android.text.PrecomputedText;
+import android.text.StaticLayout;
+import android.text.TextDirectionHeuristics;
+import android.text.TextPaint;
+import android.util.TypedValue;
+import android.widget.TextView;
+
+import androidx.annotation.RequiresApi;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 在后台线程解码图标、预排版标签，完成后回到主线程交给XPopWindow
+ */
+final class XPopPreparer {
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+    private static ExecutorService sExecutor;
+    // 网格item的排版参数，字号和密度不变时一直复用，不用每次创建TextView
+    private static PrecomputedTextCompat.Params sItemParams;
+    private static int sItemParamsTextSize;
+    private static float sItemParamsDensity;
+
+    interface Callback {
+        void onPrepared(XPopModel model);
+    }
+
+    private XPopPreparer() {
+    }
+
+    private static synchronized Executor getExecutor() {
+        if (sExecutor == null) {
+            sExecutor = Executors.newSingleThreadExecutor();
+        }
+        return sExecutor;
+    }
+
+    /**
+     * 主线程调用
+     *
+     * @param flat 扁平模式按XPopMenuView的画笔预排版，否则按网格item的TextView
+     */
+    static void prepare(Context context, final String[] labels, final int[] icons, final int iconTint,
+                        final boolean flat, final Callback callback) {
+        final Resources res = context.getResources();
+        final int[] validIcons = icons != null && icons.length == labels.length ? icons : null;
+        final PrecomputedTextCompat.Params itemParams = flat ? null : getItemParams(context);
+        final TextPaint menuPaint = flat ? XPopMenuView.newTextPaint(res) : null;
+        final int iconSize = res.getDimensionPixelSize(R.dimen.popup_item_icon_size);
+        final XPopIconCache iconCache = XPopIconCache.getInstance(context);
+        // 后台任务只持有Application，排队期间Activity销毁也不会被留住
+        final Context appContext = context.getApplicationContext();
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                PrecomputedTextCompat[] texts = null;
+                CharSequence[] menuTexts = null;
+                if (flat) {
+                    menuTexts = precomputeMenuTexts(labels, menuPaint);
+                } else {
+                    texts = new PrecomputedTextCompat[labels.length];
+                    for (int i = 0; i < labels.length; i++) {
+                        texts[i] = PrecomputedTextCompat.create(labels[i], itemParams);
+                    }
+                }
+                Bitmap[] iconBitmaps = null;
+                if (validIcons != null) {
+                    iconBitmaps = new Bitmap[validIcons.length];
+                    for (int i = 0; i < validIcons.length; i++) {
+                        iconBitmaps[i] = iconCache.get(appContext, validIcons[i], iconTint, iconSize);
+                    }
+                }
+                final XPopModel model = new XPopModel(labels, icons, iconTint, iconBitmaps, texts, menuTexts);
+                sMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onPrepared(model);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 排版参数要取自和item一致的TextView，否则PrecomputedText无法直接设置；只在字号或密度变化时重新取
+     */
+    private static PrecomputedTextCompat.Params getItemParams(Context context) {
+        Resources res = context.getResources();
+        int textSize = res.getDimensionPixelSize(R.dimen.popup_item_text_size);
+        float density = res.getDisplayMetrics().density;
+        if (sItemParams == null || sItemParamsTextSize != textSize || sItemParamsDensity != density) {
+            TextView template = new TextView(context);
+            template.setTextSize(TypedValue.COMPLEX_UNIT_PX, textSize);
+            // 返回的参数持有画笔的拷贝，不会留住template和Activity
+            sItemParams = TextViewCompat.getTextMetricsParams(template);
+            sItemParamsTextSize = textSize;
+            sItemParamsDensity = density;
+        }
+        return sItemParams;
+    }
+
+    /**
+     * API 28起返回PrecomputedText，参数和XPopMenuView里的StaticLayout一致，主线程排版时直接使用测量结果
+     * 之前的版本只能先在后台排一次，预热系统的文字测量缓存，返回原标签
+     */
+    @SuppressWarnings("deprecation")
+    private static CharSequence[] precomputeMenuTexts(String[] labels, TextPaint paint) {
+        CharSequence[] texts = new CharSequence[labels.length];
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            PrecomputedText.Params params = newMenuParams(paint);
+            for (int i = 0; i < labels.length; i++) {
+                texts[i] = PrecomputedText.create(labels[i], params);
+            }
+            return texts;
+        }
+        for (int i = 0; i < labels.length; i++) {
+            new StaticLayout(labels[i], paint, Integer.MAX_VALUE, Layout.Alignment.ALIGN_NORMAL, 1f, 0f, false);
+            texts[i] = labels[i];
+        }
+        return texts;
+    }
+
+    // StaticLayout旧构造方法使用的默认值
+    @RequiresApi(Build.VERSION_CODES.P)
+    private static PrecomputedText.Params newMenuParams(TextPaint paint) {
+        return new PrecomputedText.Params.Builder(paint)
+                .setBreakStrategy(Layout.BREAK_STRATEGY_SIMPLE)
+                .setHyphenationFrequency(Layout.HYPHENATION_FREQUENCY_NONE)
+                .setTextDirection(TextDirectionHeuristics.FIRSTSTRONG_LTR)
+                .build();
+    }
+}
@@ -0,0 +1,260 @@
+package com.vachel.xpopwindow;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.Color;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.graphics.drawable.StateListDrawable;
+import android.util.LruCache;
+import android.util.TypedValue;
+
+import androidx.core.content.ContextCompat;
+
+/**
+ * 弹窗样式，不可变；相同参数的样式只解析一次（最近用过的CACHE_SIZE个），背景drawable通过ConstantState共享
+ * 用法参照      XPopStyle style = new XPopStyle.Builder(context)
+ *                         .setNormalBackgroundColor(color)
+ *                         .build();
+ */
+public final class XPopStyle {
+    private static final float DEFAULT_TEXT_SIZE_DP = 14;
+    private static final int DEFAULT_BACKGROUND_RADIUS_DP = 6;
+    private static final int DEFAULT_INDICATOR_WIDTH_DP = 14;
+    private static final int DEFAULT_INDICATOR_HEIGHT_DP = 7;
+
+    // 按主题或消息着色时参数组合很多，只保留最近用过的
+    private static final int CACHE_SIZE = 16;
+    private static final LruCache<XPopStyle, XPopStyle> sCache = new LruCache<>(CACHE_SIZE);
+
+    final int normalTextColor;
+    final int pressedTextColor;
+    final int normalBackgroundColor;
+    final int pressedBackgroundColor;
+    final int cornerRadius;
+    final float textSize;
+    final int indicatorWidth;
+    final int indicatorHeight;
+
+    private ColorStateList mTextColorStateList;
+    private Drawable.ConstantState mCornerBackgroundState;
+    private Drawable.ConstantState mItemBackgroundState;
+    private Drawable.ConstantState mIndicatorState;
+
+    private XPopStyle(int normalTextColor, int pressedTextColor, int normalBackgroundColor, int pressedBackgroundColor,
+                      int cornerRadius, float textSize, int indicatorWidth, int indicatorHeight) {
+        this.normalTextColor = normalTextColor;
+        this.pressedTextColor = pressedTextColor;
+        this.normalBackgroundColor = normalBackgroundColor;
+        this.pressedBackgroundColor = pressedBackgroundColor;
+        this.cornerRadius = cornerRadius;
+        this.textSize = textSize;
+        this.indicatorWidth = indicatorWidth;
+        this.indicatorHeight = indicatorHeight;
+    }
+
+    /**
+     * 取出缓存的样式，没有时才解析drawable和ColorStateList
+     */
+    static XPopStyle obtain(int normalTextColor, int pressedTextColor, int normalBackgroundColor, int pressedBackgroundColor,
+                            int cornerRadius, float textSize, int indicatorWidth, int indicatorHeight) {
+        XPopStyle key = new XPopStyle(normalTextColor, pressedTextColor, normalBackgroundColor, pressedBackgroundColor,
+                cornerRadius, textSize, indicatorWidth, indicatorHeight);
+        XPopStyle style = sCache.get(key);
+        if (style == null) {
+            key.resolve();
+            sCache.put(key, key);
+            style = key;
+        }
+        return style;
+    }
+
+    private void resolve() {
+        int[][] states = new int[2][];
+        states[0] = new int[]{android.R.attr.state_pressed};
+        states[1] = new int[]{};
+        mTextColorStateList = new ColorStateList(states, new int[]{pressedTextColor, normalTextColor});
+
+        GradientDrawable cornerBackground = new GradientDrawable();
+        cornerBackground.setColor(normalBackgroundColor);
+        cornerBackground.setCornerRadius(cornerRadius);
+        mCornerBackgroundState = cornerBackground.getConstantState();
+
+        StateListDrawable itemBackground = new StateListDrawable();
+        GradientDrawable itemPressedDrawable = new GradientDrawable();
+        itemPressedDrawable.setColor(pressedBackgroundColor);
+        GradientDrawable itemNormalDrawable = new GradientDrawable();
+        itemNormalDrawable.setColor(Color.TRANSPARENT);
+        itemBackground.addState(new int[]{android.R.attr.state_pressed}, itemPressedDrawable);
+        itemBackground.addState(new int[]{}, itemNormalDrawable);
+        mItemBackgroundState = itemBackground.getConstantState();
+
+        mIndicatorState = new TriangleIndicatorDrawable(indicatorWidth, indicatorHeight, normalBackgroundColor).getConstantState();
+    }
+
+    public ColorStateList getTextColorStateList() {
+        return mTextColorStateList;
+    }
+
+    /**
+     * 弹窗圆角背景，和同样式的其它弹窗共享状态
+     */
+    public Drawable newCornerBackground() {
+        return mCornerBackgroundState.newDrawable();
+    }
+
+    /**
+     * item按压背景，和同样式的其它item共享状态
+     */
+    public Drawable newItemBackground() {
+        return mItemBackgroundState.newDrawable();
+    }
+
+    /**
+     * 三角指示器，Path和同样式的其它指示器共享
+     */
+    public TriangleIndicatorDrawable newIndicatorDrawable() {
+        return (TriangleIndicatorDrawable) mIndicatorState.newDrawable();
+    }
+
+    public int getNormalTextColor() {
+        return normalTextColor;
+    }
+
+    public int getPressedTextColor() {
+        return pressedTextColor;
+    }
+
+    public int getNormalBackgroundColor() {
+        return normalBackgroundColor;
+    }
+
+    public int getPressedBackgroundColor() {
+        return pressedBackgroundColor;
+    }
+
+    public int getCornerRadius() {
+        return cornerRadius;
+    }
+
+    public float getTextSize() {
+        return textSize;
+    }
+
+    public int getIndicatorWidth() {
+        return indicatorWidth;
+    }
+
+    public int getIndicatorHeight() {
+        return indicatorHeight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof XPopStyle)) {
+            return false;
+        }
+        XPopStyle that = (XPopStyle) o;
+        return normalTextColor == that.normalTextColor
+                && pressedTextColor == that.pressedTextColor
+                && normalBackgroundColor == that.normalBackgroundColor
+                && pressedBackgroundColor == that.pressedBackgroundColor
+                && cornerRadius == that.cornerRadius
+                && Float.compare(textSize, that.textSize) == 0
+                && indicatorWidth == that.indicatorWidth
+                && indicatorHeight == that.indicatorHeight;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = normalTextColor;
+        result = 31 * result + pressedTextColor;
+        result = 31 * result + normalBackgroundColor;
+        result = 31 * result + pressedBackgroundColor;
+        result = 31 * result + cornerRadius;
+        result = 31 * result + Float.floatToIntBits(textSize);
+        result = 31 * result + indicatorWidth;
+        result = 31 * result + indicatorHeight;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return normalTextColor + "," + pressedTextColor + "," + normalBackgroundColor + "," + pressedBackgroundColor
+                + "," + cornerRadius + "," + textSize + "," + indicatorWidth + "," + indicatorHeight;
+    }
+
+    /**
+     * 未设置的参数使用默认值
+     */
+    public static class Builder {
+        private final Context mContext;
+        private int mNormalTextColor;
+        private int mPressedTextColor;
+        private int mNormalBackgroundColor;
+        private int mPressedBackgroundColor;
+        private int mCornerRadius;
+        private float mTextSize;
+        private int mIndicatorWidth;
+        private int mIndicatorHeight;
+
+        public Builder(Context context) {
+            mContext = context;
+        }
+
+        public Builder setNormalTextColor(int normalTextColor) {
+            mNormalTextColor = normalTextColor;
+            return this;
+        }
+
+        public Builder setPressedTextColor(int pressedTextColor) {
+            mPressedTextColor = pressedTextColor;
+            return this;
+        }
+
+        public Builder setNormalBackgroundColor(int normalBackgroundColor) {
+            mNormalBackgroundColor = normalBackgroundColor;
+            return this;
+        }
+
+        public Builder setPressedBackgroundColor(int pressedBackgroundColor) {
+            mPressedBackgroundColor = pressedBackgroundColor;
+            return this;
+        }
+
+        public Builder setBackgroundCornerRadius(int backgroundCornerRadiusPixel) {
+            mCornerRadius = backgroundCornerRadiusPixel;
+            return this;
+        }
+
+        public Builder setTextSize(float textSizePixel) {
+            mTextSize = textSizePixel;
+            return this;
+        }
+
+        public Builder setIndicatorSize(int widthPixel, int heightPixel) {
+            mIndicatorWidth = widthPixel;
+            mIndicatorHeight = heightPixel;
+            return this;
+        }
+
+        public XPopStyle build() {
+            return obtain(mNormalTextColor != 0 ? mNormalTextColor : ContextCompat.getColor(mContext, R.color.white),
+                    mPressedTextColor != 0 ? mPressedTextColor : ContextCompat.getColor(mContext, R.color.popup_text_color),
+                    mNormalBackgroundColor != 0 ? mNormalBackgroundColor : ContextCompat.getColor(mContext, R.color.popup_bg),
+                    mPressedBackgroundColor != 0 ? mPressedBackgroundColor : ContextCompat.getColor(mContext, R.color.popup_bg_pressed),
+                    mCornerRadius != 0 ? mCornerRadius : dp2px(DEFAULT_BACKGROUND_RADIUS_DP),
+                    mTextSize != 0 ? mTextSize : dp2px(DEFAULT_TEXT_SIZE_DP),
+                    mIndicatorWidth != 0 ? mIndicatorWidth : dp2px(DEFAULT_INDICATOR_WIDTH_DP),
+                    mIndicatorHeight != 0 ? mIndicatorHeight : dp2px(DEFAULT_INDICATOR_HEIGHT_DP));
+        }
+
+        private int dp2px(float value) {
+            return (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
+                    value, mContext.getResources().getDisplayMetrics());
+        }
+    }
+}
@@ -0,0 +1,1569 @@
+package com.vachel.xpopwindow;
+
+import android.animation.ValueAnimator;
+import android.app.Activity;
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.ImageView;
+import android.widget.LinearLayout;
+import android.widget.PopupWindow;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.core.content.ContextCompat;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.OnLifecycleEvent;
+
+import com.vachel.xpopwindow.util.DisplayMetricsCache;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 用法参照      XPopWindow.build(MainActivity.this, view)
+ *                         .bindLifeCycle(lifecycleOwner)
+ *                         .setItems(items)
+ *                         .setIcons(icons)
+ *                         .setDividerVerticalEnable(true)
+ *                         .setDividerHorizontalEnable(false)
+ *                         .setListener(MainActivity.this)
+ *                         .show();
+ * 图标较大时可以用showAsync()代替show()，解码和排版放到后台线程
+ */
+public class XPopWindow implements LifecycleObserver, PopupWindow.OnDismissListener {
+    private static final float DEFAULT_PADDING_DP = 5.0f;
+    private static final int DEFAULT_SPAN_COUNT = 5;
+    // 扁平模式最多支持的item个数，超过时仍用RecyclerView
+    private static final int FLAT_MODE_MAX_ITEMS = 10;
+    private static final String GRID_FACTORY_CLASS = "com.vachel.xpopwindow.XPopRecyclerGrid$Factory";
+    private static XPopGrid.Factory sGridFactory;
+    private static boolean sGridFactoryResolved;
+
+    private static final int DEFAULT_MARGIN_HORIZONTAL_DP = 16;
+    // 非跟随模式下anchorView移动超过这个距离才消失，停止移动后重新显示
+    private static final int SCROLL_DISMISS_SLOP_PX = 2;
+    private static final long SCROLL_RESHOW_DELAY_MS = 400;
+    // 分页模式下"更多"格子的id
+    private static final int MORE_ITEM_ID = Integer.MIN_VALUE;
+    private static final long PAGE_RESIZE_DURATION_MS = 150;
+
+    // 显示和消失动画
+    public static final int ANIMATION_NONE = 0;
+    public static final int ANIMATION_SCALE_FADE = 1;
+    // 带回弹的放大，滚动跟随重新定位时会立即结束
+    public static final int ANIMATION_SPRING = 2;
+    // 默认的点击防抖间隔
+    public static final long DEFAULT_CLICK_DEBOUNCE_MS = 300;
+
+    private static XPopMetrics sDefaultMetrics;
+    private static XPopJankMonitor sDefaultJankMonitor;
+    // 复用池查找用的key，只在主线程使用，每次show重新填充
+    private static final XPopCacheKey sPoolKey = new XPopCacheKey();
+    private Context mContext;
+    private XPopHost mPopupWindow;
+    // 弱引用anchorView，弹窗对象被长期持有时不会连带列表和Activity
+    private WeakReference<View> mAnchorRef;
+    private View mIndicatorView;
+    private String[] mPopupLabels;
+    private int[] mPopupIcons;
+    private int mIconTint;
+    // 通过XPopItem设置时的id和可用状态，为null时id就是下标、全部可用
+    private int[] mItemIds;
+    private boolean[] mItemEnabled;
+    // 分页模式：每页的item个数，0表示不分页
+    private int mPageSize;
+    private int mPageIndex;
+    // 当前显示的一页（不分页时就是全部item），分页时末尾多一个"更多"
+    private String[] mShownLabels;
+    private int[] mShownIcons;
+    private int[] mShownIds;
+    private boolean[] mShownEnabled;
+    private ValueAnimator mPageResizeAnimator;
+    // 自动排版：按屏幕宽度和标签宽度决定列数和格子宽度
+    private boolean mAutoFit;
+    private int mAnimation = ANIMATION_NONE;
+    private int mSpanCount;
+    private int mCellWidth;
+    private IXPopupListener mIXPopupListener;
+    private IXPopupItemListener mIXPopupItemListener;
+    private XPopStyle mStyle;
+    // 默认左右margin最小值
+    private int mMarginHorizontal;
+    //指示器属性
+    private int mIndicatorWidth;
+    private int mIndicatorHeight;
+    //PopupWindow属性
+    private int mPopupWindowWidth;
+    private int mPopupWindowHeight;
+    //文本属性
+    private int mNormalTextColor;
+    private int mPressedTextColor;
+    private float mTextSize;
+    private int mTextPaddingLeft;
+    private int mTextPaddingTop;
+    private int mTextPaddingRight;
+    private int mTextPaddingBottom;
+    private int mNormalBackgroundColor;
+    private int mPressedBackgroundColor;
+    private int mBackgroundCornerRadius;
+    //是否显示在下方
+    private boolean mIsShowBottom;
+    //倒转高度,当落下位置比这个值小时，气泡显示在下方; 默认为状态栏高度
+    private int mReversalHeight;
+    private boolean mDividerHorizontalEnable;
+    private boolean mDividerVerticalEnable;
+    private Lifecycle mLifecycle;
+    private XPopWindowPool mPool;
+    private boolean mFlatMode;
+    private boolean mFollowAnchor;
+    private boolean mOverlayMode;
+    private final XPopAnchorTracker mAnchorTracker = new XPopAnchorTracker();
+    // 因为滚动暂时隐藏，停止滚动后还要重新显示
+    private boolean mScrollHiding;
+    // 位置计算复用的数组，滚动跟随时每帧都会用到
+    private final int[] mAnchorLocation = new int[2];
+    private final int[] mShowLocation = new int[2];
+    private DisplayMetricsCache mDisplayMetrics;
+    // showAsync在后台准备好的图标和排版结果
+    private XPopModel mPreparedModel;
+    // 为null时不计时也不上报
+    private XPopMetrics mMetrics;
+    private int mDismissReason = XPopMetrics.DISMISS_OUTSIDE;
+    private XPopJankMonitor mJankMonitor;
+    // 已经开始统计掉帧，滚动隐藏期间也不停止
+    private boolean mJankTracking;
+    // 当前显示用的布局，updateItems时直接在上面更新
+    private XPopWindowPool.Entry mEntry;
+    // 同一窗口只显示一个弹窗，show时登记
+    private XPopManager mManager;
+    private boolean mReplaceOnShow = true;
+    // 被替换的弹窗留下的布局，结构相同时直接复用
+    private XPopWindowPool.Entry mReplacedEntry;
+    // 滚动后重新显示用主线程Handler投递，anchorView已回收或detach时也能移除
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    // 宿主已销毁，不再显示
+    private boolean mDestroyed;
+    private IXPopupActionListener mIXPopupActionListener;
+    private long mClickDebounceMs = DEFAULT_CLICK_DEBOUNCE_MS;
+    private long mLastClickTime;
+    private boolean mSingleAction = true;
+    // 本次显示已经回调过一次点击，弹窗消失前的点击都丢弃
+    private boolean mActionDispatched;
+
+    // anchorView决定了显示位置； 显示箭头会对齐anchorView中点
+    public static XPopWindow build(Context context, View anchorView) {
+        XPopWindow popupView = new XPopWindow(context);
+        popupView.mAnchorRef = anchorView == null ? null : new WeakReference<>(anchorView);
+        if (context instanceof LifecycleOwner) {
+            // 默认跟随Activity的生命周期，bindLifeCycle可换成Fragment等
+            popupView.mLifecycle = ((LifecycleOwner) context).getLifecycle();
+        }
+        // 预热过的Activity默认使用它的复用池
+        popupView.mPool = XPopWindowPool.peek(context);
+        popupView.mMetrics = sDefaultMetrics;
+        popupView.mJankMonitor = sDefaultJankMonitor;
+        return popupView;
+    }
+
+    /**
+     * 之后build的弹窗都上报到metrics；传null或XPopMetrics.NONE关闭
+     */
+    public static void setDefaultMetrics(XPopMetrics metrics) {
+        sDefaultMetrics = metrics == XPopMetrics.NONE ? null : metrics;
+    }
+
+    /**
+     * 之后build的弹窗显示期间都统计宿主窗口的掉帧（API 24+）；传null关闭
+     */
+    public static void setDefaultJankMonitor(XPopJankMonitor monitor) {
+        sDefaultJankMonitor = monitor;
+    }
+
+    /**
+     * 预热：在主线程空闲时提前创建并测量弹窗布局，之后相同配置的show只需要挂载
+     * 需要分割线、扁平模式等配置时，用build(context, null)配置好后调用实例方法prewarm()
+     */
+    public static void prewarm(Context context, XPopStyle style, String[] labels, int[] icons) {
+        build(context, null)
+                .setStyle(style)
+                .setItems(labels)
+                .setIcons(icons)
+                .prewarm();
+    }
+
+    /**
+     * 按当前配置预热，布局放进该Activity的复用池；anchorView在show时再确定
+     */
+    public void prewarm() {
+        if (mPool == null) {
+            mPool = XPopWindowPool.of(mContext);
+        }
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                if (mContext instanceof Activity && ((Activity) mContext).isFinishing()) {
+                    return false;
+                }
+                initParameters();
+                resolvePage();
+                if (mPool.contains(getPoolKey())) {
+                    return false;
+                }
+                XPopWindowPool.Entry entry = inflateContent();
+                // 提前走一遍measure和layout，item布局的inflate和bind都在这里完成
+                entry.contentView.measure(View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED),
+                        View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+                entry.contentView.layout(0, 0, entry.contentView.getMeasuredWidth(), entry.contentView.getMeasuredHeight());
+                if (!mOverlayMode) {
+                    ensurePopupWindow(entry);
+                }
+                mPool.put(entry);
+                return false;
+            }
+        });
+    }
+
+    /**
+     * anchorView位置变化改为通过ViewTreeObserver跟踪，任何滚动容器都会重定位，不再需要绑定
+     */
+    @Deprecated
+    public XPopWindow bindRecyclerView(View recyclerView) {
+        return this;
+    }
+
+    // 弹窗的item标签 必须设置
+    public XPopWindow setItems(String[] labels) {
+        mPopupLabels = labels;
+        mItemIds = null;
+        mItemEnabled = null;
+        return this;
+    }
+
+    /**
+     * 用XPopItem设置标签、图标、id和可用状态，不可见的项不展示；和setItems(String[])、setIcons二选一
+     */
+    public XPopWindow setItems(List<XPopItem> items) {
+        int count = 0;
+        boolean hasIcons = false;
+        for (XPopItem item : items) {
+            if (item.isVisible()) {
+                count++;
+                hasIcons |= item.getIcon() != 0;
+            }
+        }
+        String[] labels = new String[count];
+        int[] icons = hasIcons ? new int[count] : null;
+        int[] ids = new int[count];
+        boolean[] enabled = new boolean[count];
+        int index = 0;
+        for (XPopItem item : items) {
+            if (!item.isVisible()) {
+                continue;
+            }
+            labels[index] = item.getLabel();
+            if (icons != null) {
+                icons[index] = item.getIcon();
+            }
+            ids[index] = item.getId();
+            enabled[index] = item.isEnabled();
+            index++;
+        }
+        mPopupLabels = labels;
+        mPopupIcons = icons;
+        mItemIds = ids;
+        mItemEnabled = enabled;
+        return this;
+    }
+
+    /**
+     * 显示中更新菜单：个数和有无图标不变时在当前弹窗上按id做增量更新，不重新创建；否则重新创建并显示
+     */
+    public void updateItems(List<XPopItem> items) {
+        String[] oldLabels = mShownLabels;
+        int[] oldIcons = mShownIcons;
+        int[] oldIds = mShownIds;
+        boolean[] oldEnabled = mShownEnabled;
+        setItems(items);
+        if (!isShowing() || mEntry == null) {
+            return;
+        }
+        int oldSpanCount = mSpanCount;
+        int oldCellWidth = mCellWidth;
+        resolvePage();
+        if (oldLabels.length != mShownLabels.length || (oldIcons == null) != (mShownIcons == null)
+                || oldSpanCount != mSpanCount || oldCellWidth != mCellWidth) {
+            // 网格结构和尺寸都变了
+            dismiss(XPopMetrics.DISMISS_API, false);
+            mPopupWindowWidth = 0;
+            mPopupWindowHeight = 0;
+            show();
+            return;
+        }
+        XPopWindowPool.Entry entry = mEntry;
+        if (entry.menuView != null) {
+            bindMenuView(entry.menuView);
+        } else {
+            entry.grid.update(mGridHost, oldLabels, oldIcons, oldIds, oldEnabled);
+        }
+        entry.labels = mShownLabels;
+        measureContent(entry);
+        if (entry.width != mPopupWindowWidth || entry.height != mPopupWindowHeight) {
+            // 标签换行等导致尺寸变化时原地调整
+            mPopupWindowWidth = entry.width;
+            mPopupWindowHeight = entry.height;
+            updateShowLocation();
+            mPopupWindow.update(mShowLocation[0], mShowLocation[1], mPopupWindowWidth, mPopupWindowHeight);
+        }
+    }
+
+    // 各个标签对应的图标；可以不设置； 设置和Items个数不对应也不展示
+    public XPopWindow setIcons(int[] icons) {
+        return setIcons(icons, 0);
+    }
+
+    /**
+     * 图标按资源id、着色和item尺寸解码后放在XPopIconCache里，所有弹窗共用
+     *
+     * @param tint 图标着色，0表示使用原图
+     */
+    public XPopWindow setIcons(int[] icons, int tint) {
+        mPopupIcons = icons;
+        mIconTint = tint;
+        return this;
+    }
+
+    // 顶部默认不可用距离， 默认为状态栏高度
+    public XPopWindow setReversalHeight(int reversalHeight) {
+        mReversalHeight = reversalHeight;
+        return this;
+    }
+
+    public XPopWindow setHorizontalMarginMin(int marginMin) {
+        mMarginHorizontal = marginMin;
+        return this;
+    }
+
+    public XPopWindow setListener(IXPopupListener listener) {
+        mIXPopupListener = listener;
+        return this;
+    }
+
+    /**
+     * 按id回调点击，配合setItems(List<XPopItem>)使用；同时设置了setListener时只回调这个
+     */
+    public XPopWindow setItemListener(IXPopupItemListener listener) {
+        mIXPopupItemListener = listener;
+        return this;
+    }
+
+    /**
+     * 回调anchorView、id和在items中的位置，不做字符串查找；优先于setItemListener和setListener
+     */
+    public XPopWindow setActionListener(IXPopupActionListener listener) {
+        mIXPopupActionListener = listener;
+        return this;
+    }
+
+    /**
+     * 两次点击的最小间隔，间隔内的点击被丢弃；翻页的"更多"也受限制，传0关闭
+     */
+    public XPopWindow setClickDebounce(long debounceMs) {
+        mClickDebounceMs = debounceMs;
+        return this;
+    }
+
+    /**
+     * 默认每次显示只回调一次点击，双击不会在弹窗消失前触发两次删除、转发；false时只按setClickDebounce防抖
+     */
+    public XPopWindow setSingleAction(boolean singleAction) {
+        mSingleAction = singleAction;
+        return this;
+    }
+
+    /**
+     * 在onStop时收起弹窗，onDestroy时释放对Activity的引用；context是LifecycleOwner时默认已绑定，Fragment中可换成Fragment的生命周期
+     */
+    public XPopWindow bindLifeCycle(LifecycleOwner lifecycleOwner) {
+        // 生命周期绑定不在这里而是show时才监听
+        mLifecycle = lifecycleOwner.getLifecycle();
+        return this;
+    }
+
+    /**
+     * 直接使用解析好的样式，会覆盖之前对颜色、圆角、字号和指示器尺寸的单独设置
+     */
+    public XPopWindow setStyle(XPopStyle style) {
+        mStyle = style;
+        return this;
+    }
+
+    /**
+     * 跟随模式：anchorView所在容器滚动时弹窗跟着移动，anchorView滚出可见区域时才消失
+     * 默认模式下滚动时先消失，停止滚动后在新位置重新显示
+     */
+    public XPopWindow setFollowAnchor(boolean followAnchor) {
+        mFollowAnchor = followAnchor;
+        return this;
+    }
+
+    /**
+     * 同一窗口已有弹窗显示时的处理：默认立即替换掉旧弹窗并复用它的布局；false时保留旧弹窗，本次show不显示
+     */
+    public XPopWindow setReplaceOnShow(boolean replaceOnShow) {
+        mReplaceOnShow = replaceOnShow;
+        return this;
+    }
+
+    /**
+     * 覆盖层模式：气泡直接画在Activity的DecorView里，显示和消失不再经过WindowManagerService创建、销毁窗口
+     * 点击外部和返回键照常收起；气泡超出Activity窗口（如对话框里的anchorView）时仍用PopupWindow显示
+     */
+    public XPopWindow setOverlayMode(boolean overlayMode) {
+        mOverlayMode = overlayMode;
+        return this;
+    }
+
+    /**
+     * 扁平模式：item较少时用单个XPopMenuView绘制，不再创建RecyclerView和item布局
+     */
+    public XPopWindow setFlatMode(boolean flatMode) {
+        mFlatMode = flatMode;
+        return this;
+    }
+
+    /**
+     * 分页模式：item超过pageSize个时每页显示pageSize个加一个"更多"，点击"更多"翻到下一页，最后一页翻回第一页
+     * 只创建当前页的View，翻页时复用同一个PopupWindow并用update调整尺寸；0表示不分页
+     */
+    public XPopWindow setPageSize(int pageSize) {
+        mPageSize = pageSize;
+        mPageIndex = 0;
+        return this;
+    }
+
+    /**
+     * 显示和消失动画，以指示器尖端为中心缩放淡入淡出；默认ANIMATION_NONE
+     *
+     * @param animation ANIMATION_NONE、ANIMATION_SCALE_FADE或ANIMATION_SPRING
+     */
+    public XPopWindow setAnimation(int animation) {
+        mAnimation = animation;
+        return this;
+    }
+
+    /**
+     * 自动排版：不再固定每行5个、每格48dp，按可用屏幕宽度和标签宽度选择行数最少的排列；横屏和平板上一行能放更多
+     */
+    public XPopWindow setAutoFit(boolean autoFit) {
+        mAutoFit = autoFit;
+        return this;
+    }
+
+    /**
+     * 设置复用池后，相同配置的弹窗只创建一次布局，之后只重新绑定数据
+     */
+    public XPopWindow setPool(XPopWindowPool pool) {
+        mPool = pool;
+        return this;
+    }
+
+    /**
+     * 单独指定这个弹窗的上报对象，覆盖setDefaultMetrics
+     */
+    public XPopWindow setMetrics(XPopMetrics metrics) {
+        mMetrics = metrics == XPopMetrics.NONE ? null : metrics;
+        return this;
+    }
+
+    /**
+     * 单独指定这个弹窗的掉帧统计，覆盖setDefaultJankMonitor；传null关闭
+     */
+    public XPopWindow setJankMonitor(XPopJankMonitor monitor) {
+        if (mJankTracking) {
+            mJankMonitor.stop();
+            mJankTracking = false;
+        }
+        mJankMonitor = monitor;
+        return this;
+    }
+
+    private XPopWindow(Context context) {
+        mContext = context;
+    }
+
+    @VisibleForTesting
+    PopupWindow getPopupWindow() {
+        return mPopupWindow instanceof PopupWindow ? (PopupWindow) mPopupWindow : null;
+    }
+
+    public boolean isShowing() {
+        return mPopupWindow != null && mPopupWindow.isShowing();
+    }
+
+    public void dismiss() {
+        dismiss(XPopMetrics.DISMISS_API, true);
+    }
+
+    /**
+     * @param animate 滚动、onStop和重建时不播放消失动画，马上消失
+     */
+    private void dismiss(int reason, boolean animate) {
+        if (mPopupWindow != null && mPopupWindow.isShowing()) {
+            mDismissReason = reason;
+            if (mJankTracking) {
+                // 滚动隐藏后还会重新显示，仍算重定位
+                mJankMonitor.markPhase(reason == XPopMetrics.DISMISS_SCROLL
+                        ? XPopJankMonitor.PHASE_REPOSITION : XPopJankMonitor.PHASE_DISMISS);
+            }
+            if (animate) {
+                mPopupWindow.dismiss();
+            } else {
+                mPopupWindow.dismissImmediately();
+            }
+            mPopupWindow = null;
+        }
+    }
+
+    private View getAnchorView() {
+        return mAnchorRef == null ? null : mAnchorRef.get();
+    }
+
+    private void initParameters() {
+        mDisplayMetrics = DisplayMetricsCache.getInstance(mContext);
+        View anchorView = getAnchorView();
+        if (anchorView != null) {
+            mDisplayMetrics.syncInsets(anchorView);
+        }
+        if (mReversalHeight == 0) {
+            mReversalHeight = mDisplayMetrics.getStatusBarHeight(mContext);
+        }
+        if (mTextPaddingLeft == 0) {
+            mTextPaddingLeft = dp2px(DEFAULT_PADDING_DP);
+        }
+        if (mTextPaddingRight == 0) {
+            mTextPaddingRight = dp2px(DEFAULT_PADDING_DP);
+        }
+        if (mMarginHorizontal == 0) {
+            mMarginHorizontal = dp2px(DEFAULT_MARGIN_HORIZONTAL_DP);
+        }
+        if (mStyle == null) {
+            // 相同参数的样式只解析一次
+            mStyle = new XPopStyle.Builder(mContext)
+                    .setNormalTextColor(mNormalTextColor)
+                    .setPressedTextColor(mPressedTextColor)
+                    .setNormalBackgroundColor(mNormalBackgroundColor)
+                    .setPressedBackgroundColor(mPressedBackgroundColor)
+                    .setBackgroundCornerRadius(mBackgroundCornerRadius)
+                    .setTextSize(mTextSize)
+                    .setIndicatorSize(mIndicatorWidth, mIndicatorHeight)
+                    .build();
+        }
+        mNormalTextColor = mStyle.normalTextColor;
+        mPressedTextColor = mStyle.pressedTextColor;
+        mNormalBackgroundColor = mStyle.normalBackgroundColor;
+        mPressedBackgroundColor = mStyle.pressedBackgroundColor;
+        mBackgroundCornerRadius = mStyle.cornerRadius;
+        mTextSize = mStyle.textSize;
+        mIndicatorWidth = mStyle.indicatorWidth;
+        mIndicatorHeight = mStyle.indicatorHeight;
+    }
+
+    /**
+     * 创建布局和显示
+     */
+    public void show() {
+        View anchorView = getAnchorView();
+        if (mDestroyed || anchorView == null || isShowing()
+                || mContext instanceof Activity && ((Activity) mContext).isFinishing()) {
+            return;
+        }
+        XPopManager manager = XPopManager.of(anchorView);
+        if (manager != null && !manager.requestShow(this, mReplaceOnShow)) {
+            return;
+        }
+        if (mJankMonitor != null) {
+            if (mJankTracking) {
+                // 滚动停止后重新显示
+                mJankMonitor.markPhase(XPopJankMonitor.PHASE_CREATE);
+            } else {
+                mJankMonitor.start(anchorView);
+                mJankTracking = true;
+            }
+        }
+        XPopMetrics metrics = mMetrics;
+        long showStart = metrics != null ? System.nanoTime() : 0;
+        initParameters();
+        long phaseStart = 0;
+        if (metrics != null) {
+            phaseStart = System.nanoTime();
+            metrics.onPhase(XPopMetrics.PHASE_INIT_PARAMETERS, phaseStart - showStart);
+        }
+        anchorView.getLocationOnScreen(mAnchorLocation);
+        if (mPopupWindow == null) {
+            resolvePage();
+            createPopupWindow(mAnchorLocation);
+            if (metrics != null) {
+                metrics.onPhase(XPopMetrics.PHASE_CREATE_POPUP_WINDOW, System.nanoTime() - phaseStart);
+            }
+        }
+        if (mPopupWindow.isShowing()) {
+            return;
+        }
+        updateShowLocation();
+        if (mOverlayMode) {
+            // 位置确定后才知道气泡是否完整落在Activity窗口内，超出时退回PopupWindow
+            XPopOverlayHost overlay = (XPopOverlayHost) obtainHost(mEntry, true);
+            mPopupWindow = overlay.canHost(anchorView, mShowLocation[0], mShowLocation[1], mPopupWindowWidth, mPopupWindowHeight)
+                    ? overlay : obtainHost(mEntry, false);
+        }
+        mPopupWindow.showAtLocation(anchorView, Gravity.NO_GRAVITY, mShowLocation[0], mShowLocation[1]);
+        mPopupWindow.animateIn(getPivotX(), getPivotY());
+        if (mJankTracking) {
+            mJankMonitor.markPhase(XPopJankMonitor.PHASE_FIRST_DRAW);
+        }
+        if (metrics != null) {
+            metrics.onPhase(XPopMetrics.PHASE_SHOW, System.nanoTime() - showStart);
+        }
+        mManager = manager;
+        mActionDispatched = false;
+        if (manager != null) {
+            manager.onShown(this);
+        }
+        if (mLifecycle != null) {
+            mLifecycle.addObserver(this);
+        }
+        if (!mAnchorTracker.isTracking()) {
+            mAnchorTracker.start(anchorView, mAnchorLocation, mTrackerCallback);
+        }
+        mPopupWindow.setOnDismissListener(this);
+    }
+
+    /**
+     * 先在后台线程解码图标、预排版标签，准备好后回到主线程再show；图标较大或标签较多时主线程只剩挂载
+     */
+    public void showAsync() {
+        if (mDestroyed) {
+            return;
+        }
+        if (mLifecycle != null) {
+            // 准备期间宿主销毁时也要能释放
+            mLifecycle.addObserver(this);
+        }
+        initParameters();
+        resolvePage();
+        if (mPreparedModel != null && mPreparedModel.matches(mShownLabels, mShownIcons, mIconTint)) {
+            show();
+            return;
+        }
+        XPopPreparer.prepare(mContext, mShownLabels, mShownIcons, mIconTint, isFlatMode(), new XPopPreparer.Callback() {
+            @Override
+            public void onPrepared(XPopModel model) {
+                if (mDestroyed) {
+                    return;
+                }
+                resolvePage();
+                if (!model.matches(mShownLabels, mShownIcons, mIconTint)) {
+                    // 准备期间数据被修改过，按最新的数据重新准备，这次的显示请求不能丢
+                    showAsync();
+                    return;
+                }
+                mPreparedModel = model;
+                show();
+            }
+        });
+    }
+
+    /**
+     * 根据mAnchorLocation计算弹窗位置存入mShowLocation，同时移动指示器；不分配对象，滚动跟随时每帧调用
+     */
+    private void updateShowLocation() {
+        View anchorView = getAnchorView();
+        int anchorWidth = anchorView == null ? 0 : anchorView.getWidth();
+        int anchorHeight = anchorView == null ? 0 : anchorView.getHeight();
+        int offsetX = anchorWidth / 2;
+        mShowLocation[0] = (int) (mAnchorLocation[0] + offsetX - mPopupWindowWidth / 2f + 0.5f);
+        int marginOffsetX = adjustMarginHorizontal(mShowLocation);
+        mShowLocation[1] = mIsShowBottom ? (int) (mAnchorLocation[1] + anchorHeight + 0.5f) : (int) (mAnchorLocation[1] - mPopupWindowHeight + 0.5f);
+        // 很高的mAnchorView超出屏幕高度时，默认显示在条目中间
+        int screenHeight = mDisplayMetrics.getScreenHeight(mContext);
+        if (mIsShowBottom && mShowLocation[1] + mPopupWindowHeight > screenHeight) {
+            // 显示在下方时超过屏幕高度了,这时候显示在mAnchorView的中间
+            mShowLocation[1] = Math.max(mAnchorLocation[1], mReversalHeight) / 2 + Math.min(mShowLocation[1], screenHeight - mPopupWindowHeight) / 2;
+        }
+        translateIndicator(mAnchorLocation[0], anchorWidth, marginOffsetX);
+    }
+
+    /**
+     * anchorView位置变化时回调；跟随模式和小幅移动时用update原地移动，否则先消失、停止移动后重新显示
+     */
+    private final XPopAnchorTracker.Callback mTrackerCallback = new XPopAnchorTracker.Callback() {
+        @Override
+        public void onAnchorMoved(int[] location, int dx, int dy) {
+            if (!isShowing()) {
+                if (mScrollHiding) {
+                    // 还在滚动，推迟重新显示
+                    mHandler.removeCallbacks(mDelayRunnable);
+                    mHandler.postDelayed(mDelayRunnable, SCROLL_RESHOW_DELAY_MS);
+                }
+                return;
+            }
+            if (mFollowAnchor || Math.abs(dx) <= SCROLL_DISMISS_SLOP_PX && Math.abs(dy) <= SCROLL_DISMISS_SLOP_PX) {
+                updateShowLocation();
+                if (mPopupWindow.isSpring()) {
+                    // 重新定位时不再回弹
+                    mPopupWindow.finishAnimation();
+                } else {
+                    mPopupWindow.setPivot(getPivotX(), getPivotY());
+                }
+                mPopupWindow.update(mShowLocation[0], mShowLocation[1], mPopupWindowWidth, mPopupWindowHeight);
+                return;
+            }
+            if (mMetrics != null) {
+                mMetrics.onScrollDismiss();
+            }
+            mScrollHiding = true;
+            dismiss(XPopMetrics.DISMISS_SCROLL, false);
+            mHandler.removeCallbacks(mDelayRunnable);
+            mHandler.postDelayed(mDelayRunnable, SCROLL_RESHOW_DELAY_MS);
+        }
+
+        @Override
+        public void onAnchorHidden() {
+            // anchorView已经不可见（可能已被列表回收复用），不再重新显示
+            mScrollHiding = false;
+            if (isShowing()) {
+                dismiss(XPopMetrics.DISMISS_SCROLL, false);
+            } else {
+                stopTracking();
+            }
+        }
+    };
+
+    /**
+     * 弹窗彻底结束：停止跟踪anchorView，取消待执行的重新显示
+     */
+    private void stopTracking() {
+        mAnchorTracker.stop();
+        mHandler.removeCallbacks(mDelayRunnable);
+        // 宿主已经onStop时保留监听，等ON_DESTROY释放引用
+        if (mLifecycle != null && mLifecycle.getCurrentState().isAtLeast(Lifecycle.State.STARTED)) {
+            mLifecycle.removeObserver(this);
+        }
+        if (mManager != null) {
+            mManager.onFinished(this);
+            mManager = null;
+        }
+        if (mJankTracking) {
+            mJankMonitor.stop();
+            mJankTracking = false;
+        }
+    }
+
+    /**
+     * 被同一窗口的新弹窗替换：马上消失，不再重新显示
+     *
+     * @return 可以交给新弹窗复用的布局
+     */
+    XPopWindowPool.Entry releaseForReplace() {
+        mScrollHiding = false;
+        XPopWindowPool.Entry entry = mEntry;
+        dismiss(XPopMetrics.DISMISS_REPLACE, false);
+        stopTracking();
+        mEntry = null;
+        return entry;
+    }
+
+    void adoptReplacedEntry(XPopWindowPool.Entry entry) {
+        mReplacedEntry = entry;
+    }
+
+    /**
+     * 调整横向与屏幕至少有mMarginHorizontal的边距
+     *
+     * @param showLoc
+     * @return 因为margin产生的offset
+     */
+    private int adjustMarginHorizontal(int[] showLoc) {
+        int marginOffsetX = 0;
+        if (showLoc[0] < mMarginHorizontal) {
+            showLoc[0] = mMarginHorizontal;
+            marginOffsetX = -mMarginHorizontal;
+        }
+        int screenWidth = mDisplayMetrics.getScreenWidth(mContext);
+        if (showLoc[0] + mPopupWindowWidth > screenWidth - mMarginHorizontal) {
+            showLoc[0] = screenWidth - mMarginHorizontal - mPopupWindowWidth;
+            marginOffsetX = mMarginHorizontal;
+        }
+        return marginOffsetX;
+    }
+
+    // 动画中心：指示器尖端，translateIndicator之后才准确
+    private float getPivotX() {
+        return mPopupWindowWidth / 2f + mIndicatorView.getTranslationX();
+    }
+
+    private float getPivotY() {
+        return mIsShowBottom ? 0 : mPopupWindowHeight;
+    }
+
+    private void translateIndicator(int viewX, int anchorWidth, int marginOffsetX) {
+        int offsetX = anchorWidth / 2;
+        float leftTranslationLimit = mIndicatorWidth / 2f + mBackgroundCornerRadius - mPopupWindowWidth / 2f;
+        float rightTranslationLimit = mPopupWindowWidth / 2f - mIndicatorWidth / 2f - mBackgroundCornerRadius;
+        //获取最大绝对宽度，单位是px
+        float maxWidth = mDisplayMetrics.getScreenWidth(mContext);
+        //通过setTranslationX改变view的位置，是不改变view的LayoutParams的，也即不改变getLeft等view的信息
+        if (viewX + offsetX < mPopupWindowWidth / 2f) {
+            mIndicatorView.setTranslationX(Math.max(viewX + offsetX - mPopupWindowWidth / 2f + marginOffsetX, leftTranslationLimit));
+        } else if (viewX + offsetX + mPopupWindowWidth / 2f > maxWidth) {
+            mIndicatorView.setTranslationX(Math.min(viewX + offsetX + mPopupWindowWidth / 2f - maxWidth + marginOffsetX, rightTranslationLimit));
+        } else {
+            mIndicatorView.setTranslationX(0);
+        }
+    }
+
+    private void createPopupWindow(int[] location) {
+        XPopCacheKey poolKey = mPool == null && mReplacedEntry == null ? null : getPoolKey();
+        XPopWindowPool.Entry entry = null;
+        if (mReplacedEntry != null) {
+            // 优先复用刚被替换掉的弹窗布局，省去inflate
+            if (poolKey.equals(mReplacedEntry.key) && !mReplacedEntry.isShowing()) {
+                entry = mReplacedEntry;
+            }
+            mReplacedEntry = null;
+        }
+        if (entry == null && mPool != null) {
+            entry = mPool.obtain(poolKey);
+            if (mMetrics != null) {
+                mMetrics.onPoolLookup(entry != null);
+            }
+        }
+        if (entry == null) {
+            entry = inflateContent();
+            if (mPool != null) {
+                mPool.put(entry);
+            }
+        } else {
+            // 复用已有布局，只重新绑定数据；标签变化时才重新测量一次
+            boolean labelsChanged = !Arrays.equals(entry.labels, mShownLabels);
+            if (entry.menuView != null) {
+                bindMenuView(entry.menuView);
+            } else {
+                entry.grid.bind(mGridHost, labelsChanged);
+            }
+            if (labelsChanged) {
+                entry.labels = mShownLabels;
+                measureContent(entry);
+            }
+        }
+        mIndicatorView = entry.indicatorView;
+        // 根据显示位置在屏幕位置确定window显示在mAnchorView的上方还是下方
+        mIsShowBottom = location[1] - mReversalHeight - entry.height < dp2px(2);
+        TriangleIndicatorDrawable indicator = (TriangleIndicatorDrawable) ((ImageView) mIndicatorView).getDrawable();
+        int indicatorIndex = entry.contentView.indexOfChild(mIndicatorView);
+        if (indicatorIndex < 0 || indicator.isPointUp() != mIsShowBottom) {
+            // 方向变化时才调整指示器位置
+            entry.contentView.removeView(mIndicatorView);
+            if (!mIsShowBottom) {
+                entry.contentView.addView(mIndicatorView);
+            } else {
+                entry.contentView.addView(mIndicatorView, 0);
+            }
+        }
+        indicator.setPointUp(mIsShowBottom);
+
+        if (mPopupWindowWidth == 0) {
+            mPopupWindowWidth = entry.width;
+        }
+        if (mPopupWindowHeight == 0) {
+            mPopupWindowHeight = entry.height;
+        }
+        mPopupWindow = obtainHost(entry, mOverlayMode);
+        mEntry = entry;
+    }
+
+    private XPopHost obtainHost(XPopWindowPool.Entry entry, boolean overlay) {
+        XPopHost host;
+        if (overlay) {
+            if (entry.overlayHost == null) {
+                entry.overlayHost = new XPopOverlayHost(entry.contentView);
+            }
+            host = entry.overlayHost;
+        } else {
+            ensurePopupWindow(entry);
+            host = entry.popupWindow;
+        }
+        host.setAnimation(mAnimation);
+        host.setWidth(mPopupWindowWidth);
+        host.setHeight(mPopupWindowHeight);
+        return host;
+    }
+
+    private void ensurePopupWindow(XPopWindowPool.Entry entry) {
+        if (entry.popupWindow == null) {
+            entry.popupWindow = new AnimatedPopupWindow(entry.contentView, entry.width, entry.height, true);
+            entry.popupWindow.setTouchable(true);
+            entry.popupWindow.setBackgroundDrawable(new BitmapDrawable());
+        }
+    }
+
+    /**
+     * 创建弹窗布局并测量一次尺寸
+     */
+    private XPopWindowPool.Entry inflateContent() {
+        XPopWindowPool.Entry entry = new XPopWindowPool.Entry();
+        //创建根布局
+        LinearLayout contentView = new LinearLayout(mContext);
+        contentView.setLayoutParams(new LinearLayout.LayoutParams(LinearLayout.LayoutParams.WRAP_CONTENT, LinearLayout.LayoutParams.WRAP_CONTENT));
+        contentView.setOrientation(LinearLayout.VERTICAL);
+        //创建list布局
+        LinearLayout popupListContainer = new LinearLayout(mContext);
+        popupListContainer.setLayoutParams(new LinearLayout.LayoutParams(LinearLayout.LayoutParams.WRAP_CONTENT, LinearLayout.LayoutParams.WRAP_CONTENT));
+        popupListContainer.setOrientation(LinearLayout.HORIZONTAL);
+        popupListContainer.setBackgroundDrawable(mStyle.newCornerBackground());
+
+        int spanCount = mSpanCount;
+        contentView.addView(popupListContainer);
+        if (isFlatMode()) {
+            popupListContainer.addView(createMenuView(entry, spanCount));
+        } else {
+            popupListContainer.addView(createGrid(entry, spanCount));
+        }
+        //创建指示器，方向在show时确定
+        View indicatorView = getTriangleIndicatorView();
+        LinearLayout.LayoutParams layoutParams = new LinearLayout.LayoutParams(LinearLayout.LayoutParams.WRAP_CONTENT, LinearLayout.LayoutParams.WRAP_CONTENT);
+        layoutParams.gravity = Gravity.CENTER;
+        indicatorView.setLayoutParams(layoutParams);
+        entry.contentView = contentView;
+        entry.popupListContainer = popupListContainer;
+        entry.indicatorView = indicatorView;
+        entry.labels = mShownLabels;
+        entry.key = getPoolKey().copy();
+        entry.spanCount = spanCount;
+        measureContent(entry);
+        return entry;
+    }
+
+    private View createGrid(XPopWindowPool.Entry entry, int spanCount) {
+        Drawable rowDivider = null;
+        Drawable columnDivider = null;
+        if (mDividerVerticalEnable) {
+            rowDivider = ContextCompat.getDrawable(mContext, R.drawable.popup_divider_line_horizontal);
+            entry.dividerHeight = rowDivider.getIntrinsicHeight();
+        }
+        if (mDividerHorizontalEnable) {
+            columnDivider = ContextCompat.getDrawable(mContext, R.drawable.popup_divider_line_vertical);
+            entry.dividerWidth = columnDivider.getIntrinsicWidth();
+        }
+        XPopGrid grid = getGridFactory().create(mGridHost, spanCount, rowDivider, columnDivider);
+        View gridView = grid.getView();
+        gridView.setPadding(mTextPaddingLeft, mTextPaddingTop, mTextPaddingRight, mTextPaddingBottom);
+        entry.grid = grid;
+        return gridView;
+    }
+
+    /**
+     * 扁平模式：一个View画出全部item
+     */
+    private XPopMenuView createMenuView(XPopWindowPool.Entry entry, int spanCount) {
+        XPopMenuView menuView = new XPopMenuView(mContext, mStyle);
+        menuView.setPadding(mTextPaddingLeft, mTextPaddingTop, mTextPaddingRight, mTextPaddingBottom);
+        menuView.setDividers(mDividerVerticalEnable ? ContextCompat.getDrawable(mContext, R.drawable.popup_divider_line_horizontal) : null,
+                mDividerHorizontalEnable ? ContextCompat.getDrawable(mContext, R.drawable.popup_divider_line_vertical) : null);
+        bindMenuView(menuView);
+        entry.menuView = menuView;
+        return menuView;
+    }
+
+    private void bindMenuView(XPopMenuView menuView) {
+        menuView.setCellWidth(mCellWidth);
+        XPopModel model = mPreparedModel;
+        CharSequence[] texts = model != null && model.menuTexts != null
+                && model.matches(mShownLabels, mShownIcons, mIconTint) ? model.menuTexts : null;
+        menuView.setItems(mShownLabels, texts, mShownIcons, mIconTint, mSpanCount);
+        menuView.setItemsEnabled(mShownEnabled);
+        menuView.setOnItemClickListener(mMenuClickListener);
+    }
+
+    // 扁平模式的点击入口，每个弹窗一个，复用时不再分配
+    // 网格通过它读取当前显示的数据，XPopWindow的字段不对网格模块开放
+    private final XPopGrid.Host mGridHost = new XPopGrid.Host() {
+        @Override
+        public Context getContext() {
+            return mContext;
+        }
+
+        @Override
+        public XPopStyle getStyle() {
+            return mStyle;
+        }
+
+        @Override
+        public String[] getShownLabels() {
+            return mShownLabels;
+        }
+
+        @Override
+        public int[] getShownIcons() {
+            return mShownIcons;
+        }
+
+        @Override
+        public int[] getShownIds() {
+            return mShownIds;
+        }
+
+        @Override
+        public boolean[] getShownEnabled() {
+            return mShownEnabled;
+        }
+
+        @Override
+        public int getIconTint() {
+            return mIconTint;
+        }
+
+        @Override
+        public int getCellWidth() {
+            return mCellWidth;
+        }
+
+        @Override
+        public XPopModel getPreparedModel() {
+            return mPreparedModel;
+        }
+
+        @Override
+        public void performItemClick(View view, int shownIndex) {
+            XPopWindow.this.performItemClick(view, shownIndex, mIXPopupListener);
+        }
+    };
+
+    XPopGrid.Host getGridHost() {
+        return mGridHost;
+    }
+
+    private final XPopMenuView.OnItemClickListener mMenuClickListener = new XPopMenuView.OnItemClickListener() {
+        @Override
+        public void onItemClick(View view, int index) {
+            performItemClick(view, index, mIXPopupListener);
+        }
+    };
+
+    /**
+     * 分发item点击：有id回调时按id回调，否则按标签回调；不可用的项不响应
+     *
+     * @param shownIndex 在当前页中的位置
+     */
+    private void performItemClick(View view, int shownIndex, IXPopupListener labelListener) {
+        if (shownIndex < 0 || shownIndex >= mShownLabels.length || mSingleAction && mActionDispatched) {
+            return;
+        }
+        long now = SystemClock.uptimeMillis();
+        if (mLastClickTime != 0 && now - mLastClickTime < mClickDebounceMs) {
+            return;
+        }
+        if (isPaged() && shownIndex == mShownLabels.length - 1) {
+            // "更多"
+            mLastClickTime = now;
+            showPage(mPageIndex + 1 < getPageCount() ? mPageIndex + 1 : 0);
+            return;
+        }
+        int index = isPaged() ? mPageIndex * mPageSize + shownIndex : shownIndex;
+        if (!isItemEnabled(index)) {
+            return;
+        }
+        mLastClickTime = now;
+        mActionDispatched = true;
+        if (mIXPopupActionListener != null) {
+            View anchorView = getAnchorView();
+            mIXPopupActionListener.onPopupAction(anchorView != null ? anchorView : view, getItemId(index), index);
+        } else if (mIXPopupItemListener != null) {
+            mIXPopupItemListener.onPopupItemClick(view, getItemId(index));
+        } else if (labelListener != null) {
+            labelListener.onPopupListClick(view, mPopupLabels[index]);
+        } else {
+            mActionDispatched = false;
+            return;
+        }
+        hidePopupListWindow();
+    }
+
+    private int getItemId(int index) {
+        return mItemIds == null ? index : mItemIds[index];
+    }
+
+    private boolean isItemEnabled(int index) {
+        return mItemEnabled == null || mItemEnabled[index];
+    }
+
+    private boolean isFlatMode() {
+        // 没有引入xpopwindow-recyclerview时只有扁平模式可用
+        return getGridFactory() == null || mFlatMode && mShownLabels.length <= FLAT_MODE_MAX_ITEMS;
+    }
+
+    /**
+     * 网格实现在可选模块里，按类名查找一次后缓存
+     */
+    private static XPopGrid.Factory getGridFactory() {
+        if (!sGridFactoryResolved) {
+            try {
+                sGridFactory = (XPopGrid.Factory) Class.forName(GRID_FACTORY_CLASS).newInstance();
+            } catch (Exception e) {
+                sGridFactory = null;
+            }
+            sGridFactoryResolved = true;
+        }
+        return sGridFactory;
+    }
+
+    private boolean isPaged() {
+        return mPageSize > 0 && mPopupLabels.length > mPageSize;
+    }
+
+    private int getPageCount() {
+        return isPaged() ? (mPopupLabels.length + mPageSize - 1) / mPageSize : 1;
+    }
+
+    /**
+     * 确定列数和格子宽度；分页时按全部页计算，翻页时宽度不变
+     */
+    private void resolveLayout() {
+        int count = isPaged() ? mPageSize + 1 : mShownLabels.length;
+        if (!mAutoFit) {
+            mSpanCount = Math.min(count, DEFAULT_SPAN_COUNT);
+            mCellWidth = getResources().getDimensionPixelSize(R.dimen.popup_item_width);
+            return;
+        }
+        String[] labels = mShownLabels;
+        if (isPaged()) {
+            labels = Arrays.copyOf(mPopupLabels, mPopupLabels.length + 2);
+            labels[labels.length - 2] = getResources().getString(R.string.popup_item_more);
+            labels[labels.length - 1] = getResources().getString(R.string.popup_item_back);
+        }
+        int dividerWidth = mDividerHorizontalEnable
+                ? ContextCompat.getDrawable(mContext, R.drawable.popup_divider_line_vertical).getIntrinsicWidth() : 0;
+        int availableWidth = mDisplayMetrics.getScreenWidth(mContext) - mMarginHorizontal * 2
+                - mTextPaddingLeft - mTextPaddingRight;
+        int[] layout = XPopLayoutSolver.solve(mContext, labels, count, availableWidth, dividerWidth);
+        mSpanCount = layout[0];
+        mCellWidth = layout[1];
+    }
+
+    /**
+     * 计算当前页要显示的数据；不分页时直接使用全部数据
+     */
+    private void resolvePage() {
+        if (!isPaged()) {
+            mPageIndex = 0;
+            mShownLabels = mPopupLabels;
+            mShownIcons = mPopupIcons != null && mPopupIcons.length == mPopupLabels.length ? mPopupIcons : null;
+            mShownIds = mItemIds;
+            mShownEnabled = mItemEnabled;
+            resolveLayout();
+            return;
+        }
+        mPageIndex = Math.min(mPageIndex, getPageCount() - 1);
+        int start = mPageIndex * mPageSize;
+        int count = Math.min(mPageSize, mPopupLabels.length - start);
+        boolean hasIcons = mPopupIcons != null && mPopupIcons.length == mPopupLabels.length;
+        String[] labels = new String[count + 1];
+        int[] icons = hasIcons ? new int[count + 1] : null;
+        int[] ids = new int[count + 1];
+        boolean[] enabled = mItemEnabled == null ? null : new boolean[count + 1];
+        for (int i = 0; i < count; i++) {
+            labels[i] = mPopupLabels[start + i];
+            if (icons != null) {
+                icons[i] = mPopupIcons[start + i];
+            }
+            ids[i] = getItemId(start + i);
+            if (enabled != null) {
+                enabled[i] = mItemEnabled[start + i];
+            }
+        }
+        labels[count] = getResources().getString(mPageIndex + 1 < getPageCount() ? R.string.popup_item_more : R.string.popup_item_back);
+        if (icons != null) {
+            icons[count] = R.drawable.popup_icon_more;
+        }
+        ids[count] = MORE_ITEM_ID;
+        if (enabled != null) {
+            enabled[count] = true;
+        }
+        mShownLabels = labels;
+        mShownIcons = icons;
+        mShownIds = ids;
+        mShownEnabled = enabled;
+        resolveLayout();
+    }
+
+    /**
+     * 翻页：在同一个弹窗上重新绑定当前页，尺寸变化时用update过渡到新尺寸
+     */
+    private void showPage(int page) {
+        if (!isShowing() || mEntry == null) {
+            return;
+        }
+        mPageIndex = page;
+        resolvePage();
+        XPopWindowPool.Entry entry = mEntry;
+        if (entry.menuView != null) {
+            bindMenuView(entry.menuView);
+        } else {
+            entry.grid.bind(mGridHost, true);
+        }
+        entry.labels = mShownLabels;
+        measureContent(entry);
+        animateSize(entry.width, entry.height);
+    }
+
+    private void animateSize(final int width, final int height) {
+        if (mPageResizeAnimator != null) {
+            mPageResizeAnimator.cancel();
+        }
+        final int startWidth = mPopupWindowWidth;
+        final int startHeight = mPopupWindowHeight;
+        if (startWidth == width && startHeight == height) {
+            return;
+        }
+        mPageResizeAnimator = ValueAnimator.ofFloat(0f, 1f);
+        mPageResizeAnimator.setDuration(PAGE_RESIZE_DURATION_MS);
+        mPageResizeAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animation) {
+                if (!isShowing()) {
+                    animation.cancel();
+                    return;
+                }
+                float fraction = animation.getAnimatedFraction();
+                mPopupWindowWidth = Math.round(startWidth + (width - startWidth) * fraction);
+                mPopupWindowHeight = Math.round(startHeight + (height - startHeight) * fraction);
+                updateShowLocation();
+                mPopupWindow.update(mShowLocation[0], mShowLocation[1], mPopupWindowWidth, mPopupWindowHeight);
+            }
+        });
+        mPageResizeAnimator.start();
+    }
+
+    /**
+     * 默认item布局直接算出尺寸；算不准时才真实测量一次
+     */
+    private void measureContent(XPopWindowPool.Entry entry) {
+        long start = mMetrics != null ? System.nanoTime() : 0;
+        measureContentInternal(entry);
+        if (mMetrics != null) {
+            mMetrics.onPhase(XPopMetrics.PHASE_MEASURE, System.nanoTime() - start);
+        }
+    }
+
+    private void measureContentInternal(XPopWindowPool.Entry entry) {
+        if (entry.menuView != null) {
+            // 扁平模式只有一个View，测量本身就是算术
+            entry.height = getViewHeight(entry.popupListContainer) + mIndicatorHeight;
+            entry.width = entry.popupListContainer.getMeasuredWidth();
+            return;
+        }
+        int[] size = XPopMeasurer.measure(mContext, mShownLabels, entry.grid.hasIcons(), entry.spanCount, mCellWidth,
+                entry.dividerWidth, entry.dividerHeight,
+                mTextPaddingLeft, mTextPaddingTop, mTextPaddingRight, mTextPaddingBottom);
+        if (size != null) {
+            entry.width = size[0];
+            entry.height = size[1] + mIndicatorHeight;
+        } else {
+            entry.height = getViewHeight(entry.popupListContainer) + mIndicatorHeight;
+            entry.width = entry.popupListContainer.getMeasuredWidth();
+        }
+    }
+
+    /**
+     * 复用池的key，影响布局结构和尺寸的配置都要包含进来
+     */
+    private XPopCacheKey getPoolKey() {
+        return sPoolKey.reset(null, mStyle)
+                .add(mShownLabels.length).add(mSpanCount).add(mCellWidth).add(isFlatMode()).add(mShownIcons != null)
+                .add(mDividerVerticalEnable).add(mDividerHorizontalEnable)
+                .add(mTextPaddingLeft).add(mTextPaddingTop).add(mTextPaddingRight).add(mTextPaddingBottom);
+    }
+
+    // 点击item后收起弹窗
+    public void hidePopupListWindow() {
+        if (mContext instanceof Activity && ((Activity) mContext).isFinishing()) {
+            return;
+        }
+        if (mPopupWindow != null && mPopupWindow.isShowing()) {
+            mDismissReason = XPopMetrics.DISMISS_CLICK;
+            mPopupWindow.dismiss();
+        }
+    }
+
+    private View getTriangleIndicatorView() {
+        ImageView indicator = new ImageView(mContext);
+        indicator.setImageDrawable(mStyle.newIndicatorDrawable());
+        return indicator;
+    }
+
+    public XPopWindow setIndicatorSize(int widthPixel, int heightPixel) {
+        detachStyle();
+        mIndicatorWidth = widthPixel;
+        mIndicatorHeight = heightPixel;
+        return this;
+    }
+
+    public int getNormalTextColor() {
+        return mNormalTextColor;
+    }
+
+    public XPopWindow setNormalTextColor(int normalTextColor) {
+        detachStyle();
+        mNormalTextColor = normalTextColor;
+        return this;
+    }
+
+    public int getPressedTextColor() {
+        return mPressedTextColor;
+    }
+
+    public XPopWindow setPressedTextColor(int pressedTextColor) {
+        detachStyle();
+        mPressedTextColor = pressedTextColor;
+        return this;
+    }
+
+    public float getTextSize() {
+        return mTextSize;
+    }
+
+    public XPopWindow setTextSize(float textSizePixel) {
+        detachStyle();
+        mTextSize = textSizePixel;
+        return this;
+    }
+
+    public int getTextPaddingLeft() {
+        return mTextPaddingLeft;
+    }
+
+    public XPopWindow setTextPaddingLeft(int textPaddingLeft) {
+        mTextPaddingLeft = textPaddingLeft;
+        return this;
+    }
+
+    public int getTextPaddingTop() {
+        return mTextPaddingTop;
+    }
+
+    public XPopWindow setTextPaddingTop(int textPaddingTop) {
+        mTextPaddingTop = textPaddingTop;
+        return this;
+    }
+
+    public int getTextPaddingRight() {
+        return mTextPaddingRight;
+    }
+
+    public XPopWindow setTextPaddingRight(int textPaddingRight) {
+        mTextPaddingRight = textPaddingRight;
+        return this;
+    }
+
+    public int getTextPaddingBottom() {
+        return mTextPaddingBottom;
+    }
+
+    public XPopWindow setTextPaddingBottom(int textPaddingBottom) {
+        mTextPaddingBottom = textPaddingBottom;
+        return this;
+    }
+
+    public XPopWindow setTextPadding(int left, int top, int right, int bottom) {
+        this.mTextPaddingLeft = left;
+        this.mTextPaddingTop = top;
+        this.mTextPaddingRight = right;
+        this.mTextPaddingBottom = bottom;
+        return this;
+    }
+
+    public int getNormalBackgroundColor() {
+        return mNormalBackgroundColor;
+    }
+
+    public XPopWindow setNormalBackgroundColor(int normalBackgroundColor) {
+        detachStyle();
+        mNormalBackgroundColor = normalBackgroundColor;
+        return this;
+    }
+
+    public int getPressedBackgroundColor() {
+        return mPressedBackgroundColor;
+    }
+
+    public XPopWindow setPressedBackgroundColor(int pressedBackgroundColor) {
+        detachStyle();
+        mPressedBackgroundColor = pressedBackgroundColor;
+        return this;
+    }
+
+    public int getBackgroundCornerRadius() {
+        return mBackgroundCornerRadius;
+    }
+
+    public XPopWindow setBackgroundCornerRadius(int backgroundCornerRadiusPixel) {
+        detachStyle();
+        mBackgroundCornerRadius = backgroundCornerRadiusPixel;
+        return this;
+    }
+
+    // 是否展示横向滚动方向的分割线 （分割线是竖直的）
+    public XPopWindow setDividerHorizontalEnable(boolean enable) {
+        mDividerHorizontalEnable = enable;
+        return this;
+    }
+
+    // 是否展示竖直方向的分割线 （分割线是横向的）
+    public XPopWindow setDividerVerticalEnable(boolean enable) {
+        mDividerVerticalEnable = enable;
+        return this;
+    }
+
+    /**
+     * 单独修改样式参数时，先把已解析样式的参数拷回来，show时重新解析
+     */
+    private void detachStyle() {
+        if (mStyle == null) {
+            return;
+        }
+        mNormalTextColor = mStyle.normalTextColor;
+        mPressedTextColor = mStyle.pressedTextColor;
+        mNormalBackgroundColor = mStyle.normalBackgroundColor;
+        mPressedBackgroundColor = mStyle.pressedBackgroundColor;
+        mBackgroundCornerRadius = mStyle.cornerRadius;
+        mTextSize = mStyle.textSize;
+        mIndicatorWidth = mStyle.indicatorWidth;
+        mIndicatorHeight = mStyle.indicatorHeight;
+        mStyle = null;
+    }
+
+    public Resources getResources() {
+        if (mContext == null) {
+            return Resources.getSystem();
+        } else {
+            return mContext.getResources();
+        }
+    }
+
+    private int getViewHeight(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED), View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        return view.getMeasuredHeight();
+    }
+
+    private int dp2px(float value) {
+        return (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
+                value, getResources().getDisplayMetrics());
+    }
+
+    // 停止滚动后在新位置重新显示
+    private Runnable mDelayRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mScrollHiding = false;
+            if (mMetrics != null) {
+                mMetrics.onScrollReshow();
+            }
+            show();
+            if (!isShowing()) {
+                stopTracking();
+            }
+        }
+    };
+
+    @OnLifecycleEvent(Lifecycle.Event.ON_STOP)
+    public void onStop() {
+        mScrollHiding = false;
+        dismiss(XPopMetrics.DISMISS_STOP, false);
+        stopTracking();
+        if (mPageResizeAnimator != null) {
+            mPageResizeAnimator.cancel();
+            mPageResizeAnimator = null;
+        }
+    }
+
+    /**
+     * 宿主销毁：收起弹窗并释放所有持有Activity的引用，之后show不再生效
+     */
+    @OnLifecycleEvent(Lifecycle.Event.ON_DESTROY)
+    public void onDestroy() {
+        onStop();
+        mDestroyed = true;
+        if (mLifecycle != null) {
+            mLifecycle.removeObserver(this);
+            mLifecycle = null;
+        }
+        mPopupWindow = null;
+        mEntry = null;
+        mReplacedEntry = null;
+        mIndicatorView = null;
+        mPreparedModel = null;
+        mPool = null;
+        mAnchorRef = null;
+        mIXPopupListener = null;
+        mIXPopupItemListener = null;
+        mIXPopupActionListener = null;
+        mContext = mContext.getApplicationContext();
+    }
+
+    @Override
+    public void onDismiss() {
+        if (mMetrics != null) {
+            mMetrics.onDismiss(mDismissReason);
+        }
+        if (mJankTracking && !mScrollHiding) {
+            mJankMonitor.markPhase(XPopJankMonitor.PHASE_DISMISS);
+        }
+        // 没有经过上面几种途径的都是点击外部或返回键
+        mDismissReason = XPopMetrics.DISMISS_OUTSIDE;
+        if (mPageResizeAnimator != null) {
+            mPageResizeAnimator.cancel();
+            mPageResizeAnimator = null;
+        }
+        if (!mScrollHiding) {
+            stopTracking();
+            if (!isShowing()) {
+                // 布局已回到复用池，可能马上被别的弹窗取走，不能再通过它判断显示状态或dismiss
+                mPopupWindow = null;
+                mEntry = null;
+                mIndicatorView = null;
+            }
+        }
+    }
+
+    /**
+     * 回调监听器
+     */
+    public interface IXPopupListener {
+        void onPopupListClick(View contextView, String label);
+    }
+
+    /**
+     * 按XPopItem的id回调，不再比较标签字符串
+     */
+    public interface IXPopupItemListener {
+        void onPopupItemClick(View contextView, int id);
+    }
+
+    /**
+     * 按动作回调：anchorView是弹窗对齐的View，actionId是XPopItem的id（setItems(String[])时等于index），index是在items中的位置
+     */
+    public interface IXPopupActionListener {
+        void onPopupAction(View anchorView, int actionId, int index);
+    }
+}
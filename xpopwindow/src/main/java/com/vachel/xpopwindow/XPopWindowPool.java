@@ -0,0 +1,144 @@
+package com.vachel.xpopwindow;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.LinearLayout;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.OnLifecycleEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 弹窗复用池，按Activity持有；缓存已创建的布局和PopupWindow，再次show时只重新绑定标签、图标和anchorView
+ * 用法参照      XPopWindowPool pool = new XPopWindowPool(lifecycleOwner);
+ *              XPopWindow.build(context, view)
+ *                         .setPool(pool)
+ *                         ...
+ *                         .show();
+ */
+public class XPopWindowPool implements LifecycleObserver {
+    // 按Activity登记的复用池，XPopWindow.build时自动取用；缓存的View持有Activity，只能在ON_DESTROY时移除
+    private static final Map<Context, XPopWindowPool> sPools = new HashMap<>();
+    private final Map<XPopCacheKey, Entry> mEntries = new HashMap<>();
+    private int mHitCount;
+    private int mMissCount;
+
+    public XPopWindowPool() {
+    }
+
+    // 绑定生命周期后，Activity销毁时自动清空缓存
+    public XPopWindowPool(LifecycleOwner lifecycleOwner) {
+        lifecycleOwner.getLifecycle().addObserver(this);
+    }
+
+    /**
+     * 获取context对应的复用池，没有时创建；只有LifecycleOwner会被登记，销毁时自动移除
+     */
+    public static XPopWindowPool of(Context context) {
+        XPopWindowPool pool = sPools.get(context);
+        if (pool == null) {
+            if (!(context instanceof LifecycleOwner)) {
+                return new XPopWindowPool();
+            }
+            pool = new XPopWindowPool((LifecycleOwner) context);
+            sPools.put(context, pool);
+        }
+        return pool;
+    }
+
+    static XPopWindowPool peek(Context context) {
+        return sPools.get(context);
+    }
+
+    boolean contains(XPopCacheKey key) {
+        return mEntries.containsKey(key);
+    }
+
+    /**
+     * 取出可复用的缓存，正在显示中的不能复用
+     */
+    Entry obtain(XPopCacheKey key) {
+        Entry entry = mEntries.get(key);
+        if (entry == null || entry.isShowing()) {
+            mMissCount++;
+            return null;
+        }
+        mHitCount++;
+        return entry;
+    }
+
+    /**
+     * 按entry.key放入，key是创建时保存的副本
+     */
+    void put(Entry entry) {
+        Entry old = mEntries.get(entry.key);
+        if (old != null && old.isShowing()) {
+            // 旧的还在显示，保留旧的，新的用完即丢
+            return;
+        }
+        mEntries.put(entry.key, entry);
+    }
+
+    public int getHitCount() {
+        return mHitCount;
+    }
+
+    public int getMissCount() {
+        return mMissCount;
+    }
+
+    public int size() {
+        return mEntries.size();
+    }
+
+    public void clear() {
+        for (Entry entry : mEntries.values()) {
+            if (entry.popupWindow != null && entry.popupWindow.isShowing()) {
+                entry.popupWindow.dismissImmediately();
+            }
+            if (entry.overlayHost != null) {
+                entry.overlayHost.dismissImmediately();
+            }
+        }
+        mEntries.clear();
+    }
+
+    @OnLifecycleEvent(Lifecycle.Event.ON_DESTROY)
+    public void onDestroy(LifecycleOwner owner) {
+        owner.getLifecycle().removeObserver(this);
+        if (owner instanceof Context) {
+            sPools.remove(owner);
+        }
+        clear();
+    }
+
+    /**
+     * 一次创建出来的弹窗布局
+     */
+    static class Entry {
+        LinearLayout contentView;
+        LinearLayout popupListContainer;
+        XPopGrid grid;
+        XPopMenuView menuView;
+        View indicatorView;
+        AnimatedPopupWindow popupWindow;
+        // 覆盖层模式的宿主，和popupWindow共用contentView，同一时间只有一个在显示
+        XPopOverlayHost overlayHost;
+        int width;
+        int height;
+        int spanCount;
+        int dividerWidth;
+        int dividerHeight;
+        String[] labels;
+        // 创建时的复用池key，替换显示时用来判断布局能否直接复用
+        XPopCacheKey key;
+
+        boolean isShowing() {
+            return popupWindow != null && popupWindow.isShowing() || overlayHost != null && overlayHost.isShowing();
+        }
+    }
+}
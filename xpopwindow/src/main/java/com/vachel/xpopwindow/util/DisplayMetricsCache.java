@@ -0,0 +1,128 @@
+package com.vachel.xpopwindow.util;
+
+import android.content.ComponentCallbacks;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.os.Build;
+import android.util.DisplayMetrics;
+import android.view.DisplayCutout;
+import android.view.View;
+import android.view.WindowInsets;
+
+import androidx.annotation.NonNull;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * 屏幕宽高和状态栏高度的缓存，所有弹窗共用；配置变化、窗口insets变化或换了一个窗口来取时重新计算
+ * 分屏时取的是当前窗口的尺寸，有刘海时状态栏高度取insets和刘海安全区的较大值
+ * 只缓存最近一个窗口的值：分屏、多个不同大小的Activity交替取时每次切换都会重新计算一次；
+ * 必须传入弹窗所在窗口的Context（Activity），Application Context拿到的是整个应用的配置，不是窗口大小
+ */
+public class DisplayMetricsCache implements ComponentCallbacks {
+    private static DisplayMetricsCache sInstance;
+
+    private final Context mAppContext;
+    private boolean mValid;
+    private int mScreenWidth;
+    private int mScreenHeight;
+    private int mStatusBarHeight;
+    private Object mLastInsets;
+    // 缓存值来自哪个窗口：每个Activity有自己的Resources；弱引用，不留住Activity的资源
+    private WeakReference<Resources> mResourcesRef;
+    // mLastInsets属于哪个窗口
+    private WeakReference<Resources> mInsetsResourcesRef;
+
+    public static synchronized DisplayMetricsCache getInstance(@NonNull Context context) {
+        if (sInstance == null) {
+            sInstance = new DisplayMetricsCache(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    private DisplayMetricsCache(Context appContext) {
+        mAppContext = appContext;
+        appContext.registerComponentCallbacks(this);
+    }
+
+    /**
+     * 以view所在窗口的insets为准；insets对象变化说明窗口尺寸、状态栏或刘海有变化
+     */
+    public void syncInsets(@NonNull View view) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return;
+        }
+        WindowInsets insets = view.getRootWindowInsets();
+        if (insets != null && insets != mLastInsets) {
+            mLastInsets = insets;
+            mInsetsResourcesRef = new WeakReference<>(view.getResources());
+            mValid = false;
+        }
+    }
+
+    public void invalidate() {
+        mValid = false;
+    }
+
+    public int getScreenWidth(@NonNull Context context) {
+        ensure(context);
+        return mScreenWidth;
+    }
+
+    public int getScreenHeight(@NonNull Context context) {
+        ensure(context);
+        return mScreenHeight;
+    }
+
+    public int getStatusBarHeight(@NonNull Context context) {
+        ensure(context);
+        return mStatusBarHeight;
+    }
+
+    private void ensure(Context context) {
+        Resources resources = context.getResources();
+        // Activity的Resources在分屏时就是窗口大小，不需要再通过WindowManager取
+        DisplayMetrics metrics = resources.getDisplayMetrics();
+        // 换了窗口，或者自己处理配置变化的Activity窗口大小变了（不会回调Application的onConfigurationChanged）
+        if (mValid && mResourcesRef != null && mResourcesRef.get() == resources
+                && metrics.widthPixels == mScreenWidth && metrics.heightPixels == mScreenHeight) {
+            return;
+        }
+        mResourcesRef = new WeakReference<>(resources);
+        mScreenWidth = metrics.widthPixels;
+        mScreenHeight = metrics.heightPixels;
+        mStatusBarHeight = computeStatusBarHeight(resources);
+        mValid = true;
+    }
+
+    private int computeStatusBarHeight(Resources resources) {
+        // 别的窗口同步过来的insets不能用
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M && mLastInsets != null
+                && mInsetsResourcesRef != null && mInsetsResourcesRef.get() == resources) {
+            WindowInsets insets = (WindowInsets) mLastInsets;
+            int top = insets.getSystemWindowInsetTop();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+                DisplayCutout cutout = insets.getDisplayCutout();
+                if (cutout != null) {
+                    top = Math.max(top, cutout.getSafeInsetTop());
+                }
+            }
+            return top;
+        }
+        int resourceId = resources.getIdentifier("status_bar_height", "dimen", "android");
+        if (resourceId > 0) {
+            return resources.getDimensionPixelSize(resourceId);
+        }
+        return 0;
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        invalidate();
+    }
+
+    @Override
+    public void onLowMemory() {
+    }
+}
@@ -0,0 +1,22 @@
+package com.vachel.xpopwindow.util;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+public class Utils {
+    /**
+     * 获取状态栏的高度
+     */
+    public static int getStatusBarHeight(@NonNull Context context) {
+        return DisplayMetricsCache.getInstance(context).getStatusBarHeight(context);
+    }
+
+    public static int getScreenHeight(Context context) {
+        return DisplayMetricsCache.getInstance(context).getScreenHeight(context);
+    }
+
+    public static int getScreenWidth(Context context) {
+        return DisplayMetricsCache.getInstance(context).getScreenWidth(context);
+    }
+}
@@ -0,0 +1,61 @@
+package com.vachel.xpopwindow;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 分割线网格计算：1-20个item，1-5列
+ */
+public class DividerGridTest {
+    @Test
+    public void offsetsAndLinesMatchGrid() {
+        for (int span = 1; span <= 5; span++) {
+            for (int count = 1; count <= 20; count++) {
+                DividerGrid grid = new DividerGrid(span);
+                assertTrue(grid.update(count));
+                assertFalse(grid.update(count));
+                int rows = (count + span - 1) / span;
+                int columns = Math.min(count, span);
+                String message = count + " items, " + span + " spans";
+                assertEquals(message, rows, grid.getRowCount());
+                assertEquals(message, columns, grid.getColumnCount());
+
+                int below = 0;
+                for (int position = 0; position < count; position++) {
+                    int row = position / span;
+                    int column = position % span;
+                    assertEquals(message, row < rows - 1, grid.hasDividerBelow(position));
+                    assertEquals(message, column < columns - 1, grid.hasDividerRight(position));
+                    below += grid.hasDividerBelow(position) ? 1 : 0;
+                }
+                assertEquals(message, (rows - 1) * span, below);
+
+                // 每条线只画一次，且锚点item存在
+                assertEquals(message, rows - 1, grid.getRowDividerCount());
+                assertEquals(message, columns - 1, grid.getColumnDividerCount());
+                for (int line = 0; line < grid.getRowDividerCount(); line++) {
+                    int anchor = grid.getRowDividerAnchor(line);
+                    assertTrue(message, anchor < count);
+                    assertEquals(message, line, anchor / span);
+                }
+                for (int line = 0; line < grid.getColumnDividerCount(); line++) {
+                    int anchor = grid.getColumnDividerAnchor(line);
+                    assertTrue(message, anchor < count);
+                    assertEquals(message, line, anchor % span);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void unboundedSpanIsSingleRow() {
+        DividerGrid grid = new DividerGrid(Integer.MAX_VALUE);
+        grid.update(7);
+        assertEquals(1, grid.getRowCount());
+        assertEquals(6, grid.getColumnDividerCount());
+        assertFalse(grid.hasDividerBelow(3));
+        assertTrue(grid.hasDividerRight(5));
+        assertFalse(grid.hasDividerRight(6));
+    }
+}
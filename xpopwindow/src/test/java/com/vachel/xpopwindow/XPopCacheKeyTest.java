@@ -0,0 +1,41 @@
+package com.vachel.xpopwindow;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 查找用的key复用同一个实例，放进缓存的副本不能跟着变
+ */
+public class XPopCacheKeyTest {
+    @Test
+    public void equalContentMatchesAndCopyIsIndependent() {
+        String[] labels = new String[]{"复制", "删除"};
+        XPopCacheKey probe = new XPopCacheKey();
+        XPopCacheKey stored = probe.reset(labels, null).add(5).add(true).add(1.5f).copy();
+
+        // 内容相同、数组不同也相等
+        probe.reset(new String[]{"复制", "删除"}, null).add(5).add(true).add(1.5f);
+        assertEquals(stored, probe);
+        assertEquals(stored.hashCode(), probe.hashCode());
+
+        probe.reset(labels, null).add(5).add(false).add(1.5f);
+        assertFalse(stored.equals(probe));
+        probe.reset(labels, null).add(5).add(true);
+        assertFalse(stored.equals(probe));
+
+        // 调用方之后修改数组不影响已保存的key
+        labels[0] = "粘贴";
+        probe.reset(new String[]{"复制", "删除"}, null).add(5).add(true).add(1.5f);
+        assertEquals(stored, probe);
+    }
+
+    @Test
+    public void extraComparedByEquals() {
+        XPopCacheKey probe = new XPopCacheKey();
+        XPopCacheKey stored = probe.reset(null, "style").add(1).copy();
+        assertEquals(stored, probe.reset(null, new String("style")).add(1));
+        assertFalse(stored.equals(probe.reset(null, "other").add(1)));
+        assertFalse(stored.equals(probe.reset(null, null).add(1)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.vachel.xpopwindow;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 帧按vsync时间归到阶段，以及慢帧、冻结帧和分位统计
+ */
+public class XPopJankMonitorTest {
+    private static final long FRAME = 16_000_000L;
+
+    @Test
+    public void framesAreTaggedByVsync() {
+        XPopJankMonitor monitor = new XPopJankMonitor(null);
+        // 开始统计之前的帧不计入
+        monitor.onFrame(0, FRAME / 2);
+        // show()在第1帧里执行，这一帧算create
+        monitor.markPhase(XPopJankMonitor.PHASE_CREATE, FRAME + 1000);
+        monitor.markPhase(XPopJankMonitor.PHASE_FIRST_DRAW, FRAME + 2000);
+        monitor.onFrame(FRAME, 40_000_000L);
+        monitor.onFrame(3 * FRAME, FRAME / 2);
+        // 第一帧之后都是重定位
+        monitor.onFrame(4 * FRAME, FRAME / 2);
+        monitor.onFrame(5 * FRAME, 800_000_000L);
+        monitor.markPhase(XPopJankMonitor.PHASE_DISMISS, 6 * FRAME + 1000);
+        monitor.onFrame(7 * FRAME, FRAME / 2);
+
+        assertEquals(1, monitor.getFrameCount(XPopJankMonitor.PHASE_CREATE));
+        assertEquals(1, monitor.getSlowFrameCount(XPopJankMonitor.PHASE_CREATE));
+        assertEquals(1, monitor.getFrameCount(XPopJankMonitor.PHASE_FIRST_DRAW));
+        assertEquals(0, monitor.getSlowFrameCount(XPopJankMonitor.PHASE_FIRST_DRAW));
+        assertEquals(2, monitor.getFrameCount(XPopJankMonitor.PHASE_REPOSITION));
+        assertEquals(1, monitor.getSlowFrameCount(XPopJankMonitor.PHASE_REPOSITION));
+        assertEquals(1, monitor.getFrozenFrameCount(XPopJankMonitor.PHASE_REPOSITION));
+        assertEquals(1, monitor.getFrameCount(XPopJankMonitor.PHASE_DISMISS));
+
+        long p50 = monitor.getFramePercentileMicros(XPopJankMonitor.PHASE_REPOSITION, 50);
+        long p99 = monitor.getFramePercentileMicros(XPopJankMonitor.PHASE_REPOSITION, 99);
+        assertTrue(String.valueOf(p50), p50 >= 8000 && p50 <= 8500);
+        assertTrue(String.valueOf(p99), p99 >= 800000 && p99 <= 850000);
+    }
+
+    @Test
+    public void withoutVsyncUsesCurrentPhase() {
+        XPopJankMonitor monitor = new XPopJankMonitor(null);
+        monitor.markPhase(XPopJankMonitor.PHASE_FIRST_DRAW);
+        monitor.onFrame(-1, FRAME / 2);
+        monitor.onFrame(-1, FRAME / 2);
+        assertEquals(1, monitor.getFrameCount(XPopJankMonitor.PHASE_FIRST_DRAW));
+        assertEquals(1, monitor.getFrameCount(XPopJankMonitor.PHASE_REPOSITION));
+
+        monitor.reset();
+        assertEquals(0, monitor.getFrameCount(XPopJankMonitor.PHASE_REPOSITION));
+        assertEquals(0, monitor.getFramePercentileMicros(XPopJankMonitor.PHASE_REPOSITION, 50));
+    }
+}
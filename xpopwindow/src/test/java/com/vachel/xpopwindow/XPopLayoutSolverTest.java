@@ -0,0 +1,37 @@
+package com.vachel.xpopwindow;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 自动排版的列数和格子宽度
+ */
+public class XPopLayoutSolverTest {
+    @Test
+    public void spanUsesFewestBalancedRows() {
+        for (int available = 100; available <= 2000; available += 37) {
+            for (int count = 1; count <= 30; count++) {
+                int span = XPopLayoutSolver.computeSpanCount(count, 96, 2, available);
+                String message = count + " items in " + available + "px";
+                assertTrue(message, span >= 1 && span <= count);
+                // 放得下，或者只有一列
+                assertTrue(message, span == 1 || XPopMeasurer.computeWidth(span, 96, 2, 0, 0) <= available);
+                int maxSpan = Math.max(1, available / 98);
+                int fewestRows = (count + Math.min(maxSpan, count) - 1) / Math.min(maxSpan, count);
+                assertEquals(message, fewestRows, (count + span - 1) / span);
+            }
+        }
+        // 7个放在一行最多5个的宽度里，分成4+3而不是5+2
+        assertEquals(4, XPopLayoutSolver.computeSpanCount(7, 96, 2, 98 * 5));
+        assertEquals(7, XPopLayoutSolver.computeSpanCount(7, 96, 2, 98 * 7));
+    }
+
+    @Test
+    public void cellWidthFitsLongestLabel() {
+        assertEquals(96, XPopLayoutSolver.computeCellWidth(96, 40.2f, 8, 1000));
+        assertEquals(137, XPopLayoutSolver.computeCellWidth(96, 120.3f, 8, 1000));
+        // 超过可用宽度时只能换行
+        assertEquals(300, XPopLayoutSolver.computeCellWidth(96, 800f, 8, 300));
+    }
+}
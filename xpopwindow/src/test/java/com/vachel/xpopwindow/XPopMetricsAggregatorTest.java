@@ -0,0 +1,58 @@
+package com.vachel.xpopwindow;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 耗时分桶和分位计算
+ */
+public class XPopMetricsAggregatorTest {
+    @Test
+    public void bucketBoundsCoverValue() {
+        int last = -1;
+        for (long value = 0; value < 1 << 20; value += 1 + value / 64) {
+            int index = XPopMetricsAggregator.bucketIndex(value);
+            assertTrue(index >= last);
+            last = index;
+            long upper = XPopMetricsAggregator.bucketUpperBound(index);
+            assertTrue(value + " <= " + upper, value <= upper);
+            // 相对误差不超过1/16
+            assertTrue(value + " ~ " + upper, upper - value <= value / 16);
+        }
+        assertEquals(XPopMetricsAggregator.BUCKET_COUNT - 1, XPopMetricsAggregator.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentilesAndCounters() {
+        XPopMetricsAggregator metrics = new XPopMetricsAggregator();
+        for (int i = 1; i <= 100; i++) {
+            metrics.onPhase(XPopMetrics.PHASE_SHOW, i * 1000L);
+        }
+        assertEquals(100, metrics.getPhaseCount(XPopMetrics.PHASE_SHOW));
+        assertEquals(50, metrics.getPhaseMeanMicros(XPopMetrics.PHASE_SHOW));
+        long p50 = metrics.getPhasePercentileMicros(XPopMetrics.PHASE_SHOW, 50);
+        long p99 = metrics.getPhasePercentileMicros(XPopMetrics.PHASE_SHOW, 99);
+        assertTrue(String.valueOf(p50), p50 >= 50 && p50 <= 53);
+        assertTrue(String.valueOf(p99), p99 >= 99 && p99 <= 105);
+        assertEquals(0, metrics.getPhasePercentileMicros(XPopMetrics.PHASE_MEASURE, 50));
+
+        metrics.onPoolLookup(true);
+        metrics.onPoolLookup(false);
+        metrics.onPoolLookup(true);
+        metrics.onScrollDismiss();
+        metrics.onScrollReshow();
+        metrics.onDismiss(XPopMetrics.DISMISS_CLICK);
+        metrics.onDismiss(XPopMetrics.DISMISS_CLICK);
+        assertEquals(2, metrics.getPoolHitCount());
+        assertEquals(1, metrics.getPoolMissCount());
+        assertEquals(1, metrics.getScrollDismissCount());
+        assertEquals(1, metrics.getScrollReshowCount());
+        assertEquals(2, metrics.getDismissCount(XPopMetrics.DISMISS_CLICK));
+        assertTrue(metrics.dump().contains("click=2"));
+
+        metrics.reset();
+        assertEquals(0, metrics.getPhaseCount(XPopMetrics.PHASE_SHOW));
+        assertEquals(0, metrics.getPoolHitCount());
+    }
+}